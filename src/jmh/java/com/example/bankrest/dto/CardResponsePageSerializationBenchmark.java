@@ -0,0 +1,55 @@
+package com.example.bankrest.dto;
+
+import com.example.bankrest.entity.Card;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serializes the same Page<CardResponse> shape the admin listing returns
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardResponsePageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<CardResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the Spring Boot auto-configured mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<CardResponse> cards = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            cards.add(new CardResponse(id, "**** **** **** " + (1000 + id), "user" + id,
+                    LocalDate.now().plusYears(3), Card.CardStatus.ACTIVE,
+                    new BigDecimal("1000.00"), LocalDateTime.now()));
+        }
+        page = new PageImpl<>(cards, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
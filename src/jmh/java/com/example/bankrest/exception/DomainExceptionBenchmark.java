@@ -0,0 +1,48 @@
+package com.example.bankrest.exception;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// A rejected transfer: the exception is thrown below `depth` frames and caught at the top,
+// as in a request passing through the filter chain, the controller and the service proxies
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainExceptionBenchmark {
+
+    // About 150 frames separate Tomcat's worker thread from CardService in a real request
+    @Param({"20", "150"})
+    private int depth;
+
+    @Benchmark
+    public void stackless(Blackhole blackhole) {
+        try {
+            reject(depth, true);
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void withStackTrace(Blackhole blackhole) {
+        try {
+            reject(depth, false);
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    private static void reject(int frames, boolean stackless) {
+        if (frames == 0) {
+            throw stackless
+                    ? new InsufficientFundsException()
+                    : new RuntimeException(InsufficientFundsException.MESSAGE);
+        }
+        reject(frames - 1, stackless);
+    }
+}
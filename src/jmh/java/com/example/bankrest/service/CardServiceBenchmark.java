@@ -0,0 +1,50 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.User;
+import com.example.bankrest.util.CardNumberEncryption;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardServiceBenchmark {
+
+    private CardService cardService;
+    private Card card;
+
+    @Setup
+    public void setUp() {
+        CardNumberEncryption cardEncryption = new CardNumberEncryption();
+        ReflectionTestUtils.setField(cardEncryption, "encryptionKey", "benchmarkCardEncryptionKey32Byte!");
+
+        cardService = new CardService();
+        ReflectionTestUtils.setField(cardService, "cardEncryption", cardEncryption);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUsername("benchmarkuser");
+
+        card = new Card();
+        card.setId(1L);
+        card.setEncryptedCardNumber(cardEncryption.encrypt("4111111111111111"));
+        card.setOwner(owner);
+        card.setExpiryDate(LocalDate.now().plusYears(3));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("1000.00"));
+    }
+
+    @Benchmark
+    public CardResponse convertToResponse() {
+        return cardService.convertToResponse(card);
+    }
+}
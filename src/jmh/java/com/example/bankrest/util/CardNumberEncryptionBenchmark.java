@@ -0,0 +1,42 @@
+package com.example.bankrest.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardNumberEncryptionBenchmark {
+
+    private CardNumberEncryption cardEncryption;
+    private String cardNumber;
+    private String encryptedCardNumber;
+
+    @Setup
+    public void setUp() {
+        cardEncryption = new CardNumberEncryption();
+        ReflectionTestUtils.setField(cardEncryption, "encryptionKey", "benchmarkCardEncryptionKey32Byte!");
+        cardNumber = "4111111111111111";
+        encryptedCardNumber = cardEncryption.encrypt(cardNumber);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cardEncryption.encrypt(cardNumber);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cardEncryption.decrypt(encryptedCardNumber);
+    }
+
+    @Benchmark
+    public String maskCardNumber() {
+        return cardEncryption.maskCardNumber(cardNumber);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bankrest.validation;
+
+import com.example.bankrest.dto.TransferRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Validates a TransferRequest the way the @Valid argument resolver does: into a fresh binding result,
+// with the hand-written validator or with Hibernate Validator behind Spring's adapter
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferRequestValidatorBenchmark {
+
+    // invalid: same card and an amount with three decimals, three errors in total
+    @Param({"valid", "invalid"})
+    private String payload;
+
+    private ValidatorFactory validatorFactory;
+    private Validator hibernateValidator;
+    private Validator handWritten;
+    private TransferRequest request;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        hibernateValidator = new SpringValidatorAdapter(validatorFactory.getValidator());
+        handWritten = new TransferRequestValidator();
+        request = "valid".equals(payload)
+                ? new TransferRequest(1L, 2L, new BigDecimal("100.00"), "Rent")
+                : new TransferRequest(1L, 1L, new BigDecimal("0.001"), "Rent");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public BeanPropertyBindingResult handWritten() {
+        return validate(handWritten);
+    }
+
+    @Benchmark
+    public BeanPropertyBindingResult hibernateValidator() {
+        return validate(hibernateValidator);
+    }
+
+    private BeanPropertyBindingResult validate(Validator validator) {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(request, "transferRequest");
+        validator.validate(request, errors);
+        return errors;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.bankrest.cache;
+
+import com.example.bankrest.entity.User;
+import com.example.bankrest.event.CardChangedEvent;
+import com.example.bankrest.event.UserChangedEvent;
+import com.example.bankrest.service.CardUpdateStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node cache invalidation over Postgres {@code LISTEN/NOTIFY}.
+ * <p>
+ * After commit, changed keys are sent on {@link #CHANNEL} as
+ * {@code <node>|<sentAtMillis>|<key>,<key>...} where a key is {@code card:<id>:<changeType>},
+ * {@code owner:<username>} (the owner's card list) or {@code user:<username>}
+ * (the account itself, also held in the Hibernate second-level cache). Every node listens on a dedicated unpooled connection and
+ * evicts the keys it receives. A card change is also handed to this node's {@link CardUpdateStream},
+ * so streams held here see changes committed on other nodes (transfer workers, the expiry sweeper).
+ * Notifications sent while a node was disconnected are lost, so the node flushes its caches (card
+ * responses and the {@code User} second-level cache region) each time it (re)connects.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String CHANNEL = "cache_invalidation";
+    static final String CARD_KEY = "card:";
+    static final String OWNER_KEY = "owner:";
+    static final String USER_KEY = "user:";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardResponseCache cardResponseCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CardUpdateStream cardUpdateStream;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.invalidation.poll-timeout:500ms}")
+    private Duration pollTimeout;
+
+    @Value("${cache.invalidation.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+
+    private Timer latencyTimer;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        latencyTimer = Timer.builder("cache.invalidation.latency")
+                .description("Time from NOTIFY on the sending node to eviction on this node")
+                .register(meterRegistry);
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        publish(List.of(CARD_KEY + event.getCardId() + ":" + event.getChangeType(),
+                OWNER_KEY + event.getOwnerUsername()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        publish(List.of(USER_KEY + event.getUsername()));
+    }
+
+    void publish(List<String> keys) {
+        String payload = nodeId + "|" + System.currentTimeMillis() + "|" + String.join(",", keys);
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, payload);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the cache TTL
+            log.warn("Could not publish cache invalidation {}", keys, e);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            // Held for the node's lifetime, so kept outside the pool and its leak detection
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                onListening();
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            try {
+                                handle(notification.getParameter());
+                            } catch (RuntimeException e) {
+                                log.warn("Ignoring malformed cache invalidation payload: {}", notification.getParameter(), e);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting in {}", reconnectDelay, e);
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Anything sent before LISTEN took effect was missed, user: keys included
+    void onListening() {
+        cardResponseCache.evictAll();
+        entityManagerFactory.getCache().evict(User.class);
+        cardUpdateStream.resyncAll();
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            // Already evicted locally after commit
+            return;
+        }
+
+        Map<Long, CardChangedEvent.ChangeType> cardChanges = new LinkedHashMap<>();
+        String owner = null;
+        for (String key : parseKeys(parts[2])) {
+            if (key.startsWith(CARD_KEY)) {
+                String[] card = key.substring(CARD_KEY.length()).split(":", 2);
+                Long cardId = Long.valueOf(card[0]);
+                cardResponseCache.evictCard(cardId);
+                if (card.length == 2) {
+                    cardChanges.put(cardId, CardChangedEvent.ChangeType.valueOf(card[1]));
+                }
+            } else if (key.startsWith(OWNER_KEY)) {
+                owner = key.substring(OWNER_KEY.length());
+                cardResponseCache.evictOwner(owner);
+            } else if (key.startsWith(USER_KEY)) {
+                cardResponseCache.evictOwner(key.substring(USER_KEY.length()));
+                // The natural-id region is keyed by username, not id, so drop the whole (small) region
+                entityManagerFactory.getCache().evict(User.class);
+            }
+        }
+
+        // A card change carries its owner's key in the same notification
+        if (owner != null) {
+            for (Map.Entry<Long, CardChangedEvent.ChangeType> change : cardChanges.entrySet()) {
+                cardUpdateStream.onCardChanged(new CardChangedEvent(change.getKey(), owner, change.getValue()));
+            }
+        }
+
+        // Wall clocks of both nodes are involved, so this is only as good as NTP
+        long latencyMillis = System.currentTimeMillis() - Long.parseLong(parts[1]);
+        latencyTimer.record(Math.max(latencyMillis, 0), TimeUnit.MILLISECONDS);
+    }
+
+    private List<String> parseKeys(String keys) {
+        List<String> result = new ArrayList<>();
+        for (String key : keys.split(",")) {
+            if (!key.isEmpty()) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bankrest.cache;
+
+import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.event.CardChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-model cache of {@link CardResponse} by card id and by owner username.
+ * <p>
+ * Entries are evicted after the commit of any transaction that changed the card.
+ * Readers take a {@link #generation()} before loading from the database and the
+ * loaded value is only kept if no eviction happened in between, so a load that
+ * raced with a commit can never re-populate the cache with the old balance.
+ */
+@Component
+public class CardResponseCache {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Long, CardResponse> cardsById;
+    private final Cache<String, List<CardResponse>> cardsByOwner;
+
+    public CardResponseCache(@Value("${cards.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${cards.cache.ttl:60s}") Duration ttl) {
+        this.cardsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.cardsByOwner = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public CardResponse getCard(Long cardId) {
+        return cardsById.getIfPresent(cardId);
+    }
+
+    public void putCard(CardResponse card, long loadedAtGeneration) {
+        cardsById.put(card.getId(), card);
+        if (generation.get() != loadedAtGeneration) {
+            // An eviction ran while the value was loaded: it may predate the commit
+            cardsById.invalidate(card.getId());
+        }
+    }
+
+    public List<CardResponse> getOwnerCards(String ownerUsername) {
+        return cardsByOwner.getIfPresent(ownerUsername);
+    }
+
+    public void putOwnerCards(String ownerUsername, List<CardResponse> cards, long loadedAtGeneration) {
+        cardsByOwner.put(ownerUsername, List.copyOf(cards));
+        if (generation.get() != loadedAtGeneration) {
+            cardsByOwner.invalidate(ownerUsername);
+        }
+    }
+
+    public void evictCard(Long cardId) {
+        generation.incrementAndGet();
+        cardsById.invalidate(cardId);
+    }
+
+    public void evictOwner(String ownerUsername) {
+        generation.incrementAndGet();
+        cardsByOwner.invalidate(ownerUsername);
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cardsById.invalidateAll();
+        cardsByOwner.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        evictCard(event.getCardId());
+        evictOwner(event.getOwnerUsername());
+    }
+}
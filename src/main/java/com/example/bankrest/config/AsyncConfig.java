@@ -0,0 +1,11 @@
+package com.example.bankrest.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async runs on the auto-configured applicationTaskExecutor, which switches
+// to virtual threads when spring.threads.virtual.enabled=true (Java 21+)
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,73 @@
+package com.example.bankrest.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import net.ttddyy.observation.tracing.JdbcObservationDocumentation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.util.EnumSet;
+
+/**
+ * Wraps the application {@link DataSource} with datasource-proxy so every statement
+ * is counted, with its execution time, in a thread-local {@code QueryCountHolder}.
+ * {@code QueryBudgetFilter} reads and resets the counts for each HTTP request.
+ * The same proxy reports {@code jdbc.connection} and {@code jdbc.query} observations,
+ * which become child spans of the repository call that ran them.
+ * <p>
+ * Only the {@code dataSource} bean is wrapped. With the read replica enabled that is
+ * the routing proxy, so statements on either pool are counted exactly once.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static QueryCountingDataSourceWrapper queryCountingDataSourceWrapper(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new QueryCountingDataSourceWrapper(
+                SingletonSupplier.of(() -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)));
+    }
+
+    static class QueryCountingDataSourceWrapper implements BeanPostProcessor, Ordered {
+
+        private final DataSourceObservationListener observationListener;
+
+        QueryCountingDataSourceWrapper(SingletonSupplier<ObservationRegistry> observationRegistry) {
+            // Resolved on first use: post-processors are created before the registry exists
+            this.observationListener = new DataSourceObservationListener(observationRegistry);
+            // Result-set spans would add one span per row read; bind values never leave the process
+            this.observationListener.setSupportedTypes(EnumSet.of(
+                    JdbcObservationDocumentation.CONNECTION, JdbcObservationDocumentation.QUERY));
+            this.observationListener.setIncludeParameterValues(false);
+        }
+
+        // After HikariPoolSizer and any other post-processor that expects the raw pool
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(DATA_SOURCE_BEAN)
+                        .countQuery()
+                        .listener(observationListener)
+                        .methodListener(observationListener)
+                        .build();
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankrest.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for {@code User} on Caffeine via JCache.
+ * Regions are created here from {@code users.cache.*}, so Hibernate fails
+ * fast on a region that is not configured instead of creating an unbounded one.
+ * Hit/miss counts are published as {@code hibernate.second.level.cache.requests}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.cache.enabled", havingValue = "true")
+public class HibernateCacheConfig {
+
+    static final List<String> REGIONS = List.of("users", "users-by-username");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${users.cache.maximum-size:10000}") long maximumSize,
+                                              @Value("${users.cache.ttl:10m}") Duration ttl) {
+        // A manager of its own per context, so the JVM-wide default one is never shared
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            // Needed for the hibernate.* Micrometer metrics
+            properties.put("hibernate.generate_statistics", true);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankrest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sizes the Hikari pool from the database host when no explicit
+ * {@code spring.datasource.hikari.maximum-pool-size} is configured, using
+ * {@code connections = (db cores * 2) + effective spindles}. More connections
+ * than that only add contention on the database side.
+ */
+@Configuration
+public class HikariPoolConfig {
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+    static final String MINIMUM_IDLE = "spring.datasource.hikari.minimum-idle";
+
+    @Bean
+    public static HikariPoolSizer hikariPoolSizer(Environment environment) {
+        return new HikariPoolSizer(environment);
+    }
+
+    static int poolSize(int databaseCores, int effectiveSpindles) {
+        return databaseCores * 2 + effectiveSpindles;
+    }
+
+    static class HikariPoolSizer implements BeanPostProcessor, Ordered {
+
+        private static final Logger log = LoggerFactory.getLogger(HikariPoolSizer.class);
+
+        private final Environment environment;
+
+        HikariPoolSizer(Environment environment) {
+            this.environment = environment;
+        }
+
+        // Sees the pool before DataSourceProxyConfig wraps it
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource dataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+                // Defaults to this host's cores, which is right when the database runs alongside
+                int cores = environment.getProperty("db.pool.database-cores", Integer.class,
+                        Runtime.getRuntime().availableProcessors());
+                int spindles = environment.getProperty("db.pool.effective-spindles", Integer.class, 1);
+                int size = poolSize(cores, spindles);
+
+                dataSource.setMaximumPoolSize(size);
+                if (!environment.containsProperty(MINIMUM_IDLE)) {
+                    // Fixed-size pool: no connection churn under bursts
+                    dataSource.setMinimumIdle(size);
+                }
+                log.info("Sized Hikari pool {} to {} connections ({} database cores, {} spindles)",
+                        dataSource.getPoolName(), size, cores, spindles);
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankrest.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica while it is healthy, everything
+ * else to the primary. Must sit behind a {@code LazyConnectionDataSourceProxy}:
+ * the read-only flag is only known once the transaction has started, after the
+ * transaction manager has asked for a connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+
+    public ReadWriteRoutingDataSource(ReplicaHealthMonitor replicaHealthMonitor) {
+        this.replicaHealthMonitor = replicaHealthMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaHealthMonitor.isHealthy()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
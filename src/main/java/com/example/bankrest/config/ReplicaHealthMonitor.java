@@ -0,0 +1,77 @@
+package com.example.bankrest.config;
+
+import com.example.bankrest.cache.CardResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Periodically checks that the replica answers and is not lagging behind the
+ * primary by more than {@code datasource.replica.max-lag}. Read-only
+ * transactions fall back to the primary while it is not healthy.
+ */
+public class ReplicaHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    // Zero when everything received has been replayed, so an idle primary does not look like lag
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource replicaDataSource;
+    private final Duration maxLag;
+    private final CardResponseCache cardResponseCache;
+
+    private volatile boolean healthy;
+
+    public ReplicaHealthMonitor(DataSource replicaDataSource, Duration maxLag, CardResponseCache cardResponseCache) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLag = maxLag;
+        this.cardResponseCache = cardResponseCache;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.health-check-interval:5s}")
+    public void check() {
+        boolean nowHealthy = probe();
+        if (nowHealthy && !healthy) {
+            healthy = true;
+            // Loads that started on the primary may finish on the replica: make them uncacheable
+            cardResponseCache.evictAll();
+            log.info("Replica is healthy, routing read-only transactions to it");
+        } else if (!nowHealthy && healthy) {
+            healthy = false;
+            log.warn("Replica is unhealthy, routing read-only transactions to the primary");
+        }
+    }
+
+    boolean probe() {
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                double lagSeconds = resultSet.getDouble(1);
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    log.debug("Replica lag {}s exceeds {}", lagSeconds, maxLag);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.debug("Replica health check failed", e);
+            return false;
+        }
+    }
+}
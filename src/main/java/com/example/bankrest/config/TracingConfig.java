@@ -0,0 +1,33 @@
+package com.example.bankrest.config;
+
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.observation.tracing.ConnectionTracingObservationHandler;
+import net.ttddyy.observation.tracing.QueryTracingObservationHandler;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Span handlers for the JDBC observations reported by {@link DataSourceProxyConfig}.
+ * They run before the default tracing handler so connection and query spans get the
+ * datasource name and SQL text instead of a bare observation name.
+ */
+@Configuration
+public class TracingConfig {
+
+    private static final int JDBC_TRACING_HANDLER_ORDER =
+            MicrometerTracingAutoConfiguration.DEFAULT_TRACING_OBSERVATION_HANDLER_ORDER - 10;
+
+    @Bean
+    @Order(JDBC_TRACING_HANDLER_ORDER)
+    public ConnectionTracingObservationHandler connectionTracingObservationHandler(Tracer tracer) {
+        return new ConnectionTracingObservationHandler(tracer);
+    }
+
+    @Bean
+    @Order(JDBC_TRACING_HANDLER_ORDER)
+    public QueryTracingObservationHandler queryTracingObservationHandler(Tracer tracer) {
+        return new QueryTracingObservationHandler(tracer);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.bankrest.dto.JwtAuthenticationResponse;
 import com.example.bankrest.dto.LoginRequest;
 import com.example.bankrest.dto.SignUpRequest;
 import com.example.bankrest.entity.User;
+import com.example.bankrest.event.UserChangedEvent;
 import com.example.bankrest.repository.UserRepository;
 import com.example.bankrest.util.JwtTokenProvider;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -38,6 +40,9 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/login")
     @Operation(
         summary = "User authentication",
@@ -106,6 +111,7 @@ public class AuthController {
         user.setEnabled(true);
 
         User result = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(result.getUsername()));
 
         // Generate token for new user
         String jwt = tokenProvider.generateTokenFromUsername(result.getUsername());
@@ -149,6 +155,7 @@ public class AuthController {
         user.setEnabled(true);
 
         User result = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(result.getUsername()));
 
         // Generate token for new admin
         String jwt = tokenProvider.generateTokenFromUsername(result.getUsername());
@@ -1,8 +1,10 @@
 package com.example.bankrest.controller;
 
 import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.dto.CardStatementResponse;
 import com.example.bankrest.dto.CreateCardRequest;
 import com.example.bankrest.service.CardService;
+import com.example.bankrest.service.CardUpdateStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,10 +18,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -28,9 +38,15 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class CardController {
 
+    // Clients may keep card responses but must revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private CardService cardService;
 
+    @Autowired
+    private CardUpdateStream cardUpdateStream;
+
     // POST /cards — create card (ADMIN only)
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -42,15 +58,12 @@ public class CardController {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Card created successfully",
             content = @Content(schema = @Schema(implementation = CardResponse.class))),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Validation error"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Owner not found")
     })
     public ResponseEntity<CardResponse> createCard(@Valid @RequestBody CreateCardRequest request) {
-        try {
-            CardResponse cardResponse = cardService.createCard(request);
-            return ResponseEntity.ok(cardResponse);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        CardResponse cardResponse = cardService.createCard(request);
+        return ResponseEntity.ok(cardResponse);
     }
 
     // GET /cards — search and pagination (ADMIN only)
@@ -71,16 +84,12 @@ public class CardController {
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
             @Parameter(description = "Card status filter") @RequestParam(required = false) String status,
             @Parameter(description = "Card owner filter") @RequestParam(required = false) Long ownerId) {
-        try {
-            Sort sort = sortDir.equalsIgnoreCase("desc") ?
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-            Pageable pageable = PageRequest.of(page, size, sort);
-
-            Page<CardResponse> cards = cardService.getAllCardsWithPagination(pageable, status, ownerId);
-            return ResponseEntity.ok(cards);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        Page<CardResponse> cards = cardService.getAllCardsWithPagination(pageable, status, ownerId);
+        return ResponseEntity.ok(cards);
     }
 
     // GET /cards/{id} — view card
@@ -92,16 +101,45 @@ public class CardController {
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Card information",
             content = @Content(schema = @Schema(implementation = CardResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Card unchanged since the ETag in If-None-Match"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Not own card"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Card not found")
     })
     public ResponseEntity<CardResponse> getCard(
-            @Parameter(description = "Card ID") @PathVariable Long id) {
-        try {
-            CardResponse card = cardService.getCardById(id);
-            return ResponseEntity.ok(card);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            @Parameter(description = "Card ID") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidation is answered from the card's version, before the card number is decrypted
+        if (ifNoneMatch != null) {
+            String eTag = CardETags.of(id, cardService.getCardVersion(id));
+            if (CardETags.matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
         }
+        CardResponse card = cardService.getCardById(id);
+        // The card may have changed since the check above, so the tag comes from the body
+        return ResponseEntity.ok()
+                .eTag(CardETags.of(card))
+                .cacheControl(REVALIDATE)
+                .body(card);
+    }
+
+    // GET /cards/{id}/statement — monthly statement
+    @GetMapping("/{id}/statement")
+    @Operation(
+        summary = "Get monthly card statement",
+        description = "Opening and closing balance with totals of credits and debits for one calendar month"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Card statement",
+            content = @Content(schema = @Schema(implementation = CardStatementResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Not own card"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<CardStatementResponse> getStatement(
+            @Parameter(description = "Card ID") @PathVariable Long id,
+            @Parameter(description = "Statement month (yyyy-MM)") @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        CardStatementResponse statement = cardService.getMonthlyStatement(id, month);
+        return ResponseEntity.ok(statement);
     }
 
     // PUT /cards/{id}/block — block card (ADMIN only)
@@ -120,12 +158,8 @@ public class CardController {
     })
     public ResponseEntity<CardResponse> blockCard(
             @Parameter(description = "Card ID") @PathVariable Long id) {
-        try {
-            CardResponse cardResponse = cardService.blockCard(id);
-            return ResponseEntity.ok(cardResponse);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        CardResponse cardResponse = cardService.blockCard(id);
+        return ResponseEntity.ok(cardResponse);
     }
 
     // PUT /cards/{id}/activate — activate card (ADMIN only)
@@ -144,12 +178,29 @@ public class CardController {
     })
     public ResponseEntity<CardResponse> activateCard(
             @Parameter(description = "Card ID") @PathVariable Long id) {
-        try {
-            CardResponse cardResponse = cardService.activateCard(id);
-            return ResponseEntity.ok(cardResponse);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        CardResponse cardResponse = cardService.activateCard(id);
+        return ResponseEntity.ok(cardResponse);
+    }
+
+    // PUT /cards/{id}/balance-shards?count=N — spread the card's credits over N balance shards (ADMIN only)
+    @PutMapping("/{id}/balance-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Set balance shards",
+        description = "Spread incoming credits of a hot card over N balance rows; 0 turns sharding off (administrators only)"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Balance shards set successfully",
+            content = @Content(schema = @Schema(implementation = CardResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid shard count"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<CardResponse> setBalanceShards(
+            @Parameter(description = "Card ID") @PathVariable Long id,
+            @Parameter(description = "Number of balance shards, 0 turns sharding off") @RequestParam int count) {
+        CardResponse cardResponse = cardService.setBalanceShards(id, count);
+        return ResponseEntity.ok(cardResponse);
     }
 
     // DELETE /cards/{id} — delete card (ADMIN only)
@@ -163,16 +214,13 @@ public class CardController {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Card deleted successfully"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Delete error"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Card not found")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Card not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Card has transfers")
     })
     public ResponseEntity<Void> deleteCard(
             @Parameter(description = "Card ID") @PathVariable Long id) {
-        try {
-            cardService.deleteCard(id);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        cardService.deleteCard(id);
+        return ResponseEntity.ok().build();
     }
 
     // USER - get own cards
@@ -184,15 +232,45 @@ public class CardController {
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "List of user cards"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Cards unchanged since the ETag in If-None-Match"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights")
     })
-    public ResponseEntity<List<CardResponse>> getMyCards() {
-        try {
-            List<CardResponse> cards = cardService.getCardsByUser();
-            return ResponseEntity.ok(cards);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<List<CardResponse>> getMyCards(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String eTag = CardETags.of(cardService.getCardVersionsByUser());
+            if (CardETags.matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
         }
+        List<CardResponse> cards = cardService.getCardsByUser();
+        return ResponseEntity.ok()
+                .eTag(CardETags.of(cards))
+                .cacheControl(REVALIDATE)
+                .body(cards);
+    }
+
+    // USER - live updates of own cards
+    @GetMapping(value = "/my/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(
+        summary = "Stream updates of user's own cards",
+        description = "Server-sent events: 'card' with the new status and balance after each committed change, " +
+                "'resync' when updates were dropped and the card list should be fetched again"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Event stream"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights")
+    })
+    public SseEmitter streamMyCards(Authentication authentication) {
+        return cardUpdateStream.subscribe(authentication.getName());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(REVALIDATE)
+                .build();
     }
 
     // Helper class for API responses
@@ -0,0 +1,80 @@
+package com.example.bankrest.controller;
+
+import com.example.bankrest.dto.CardResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strong ETags for card responses, derived from the card id and {@code updatedAt}
+ * rather than from the serialized body. Every change to a card row moves
+ * {@code updatedAt}, so equal tags mean byte-identical JSON.
+ */
+final class CardETags {
+
+    private CardETags() {
+    }
+
+    static String of(CardResponse card) {
+        return of(card.getId(), card.getUpdatedAt());
+    }
+
+    static String of(Long id, LocalDateTime updatedAt) {
+        return id + "-" + version(updatedAt);
+    }
+
+    static String of(List<CardResponse> cards) {
+        Map<Long, LocalDateTime> versions = new LinkedHashMap<>();
+        cards.forEach(card -> versions.put(card.getId(), card.getUpdatedAt()));
+        return of(versions);
+    }
+
+    // Order-sensitive, so a reordered, added or removed card changes the tag
+    static String of(Map<Long, LocalDateTime> versions) {
+        MessageDigest digest = sha256();
+        versions.forEach((id, updatedAt) ->
+                digest.update((of(id, updatedAt) + ";").getBytes(StandardCharsets.US_ASCII)));
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    // If-None-Match uses the weak comparison, so a W/ prefix still matches
+    static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String quoted = "\"" + tag + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String version(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return "0";
+        }
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return Long.toHexString(micros);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
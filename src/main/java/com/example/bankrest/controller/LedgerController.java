@@ -0,0 +1,42 @@
+package com.example.bankrest.controller;
+
+import com.example.bankrest.dto.LedgerReplayResponse;
+import com.example.bankrest.service.LedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/ledger")
+@Tag(name = "Ledger", description = "Audit of the double-entry ledger behind card balances")
+@SecurityRequirement(name = "bearerAuth")
+public class LedgerController {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    // POST /ledger/replay — rebuild ledger balances and reconcile them with cards (ADMIN only)
+    @PostMapping("/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Replay ledger",
+        description = "Rebuild materialized ledger balances from all postings and report cards and journals that do not reconcile (administrators only)"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Ledger replayed",
+            content = @Content(schema = @Schema(implementation = LedgerReplayResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights")
+    })
+    public ResponseEntity<LedgerReplayResponse> replay() {
+        return ResponseEntity.ok(ledgerService.replay());
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.bankrest.controller;
 
+import com.example.bankrest.dto.ErrorResponse;
 import com.example.bankrest.dto.TransferRequest;
+import com.example.bankrest.dto.TransferStatusResponse;
 import com.example.bankrest.service.CardService;
+import com.example.bankrest.validation.TransferRequestValidator;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -12,7 +16,11 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/transfer")
@@ -23,6 +31,15 @@ public class TransferController {
     @Autowired
     private CardService cardService;
 
+    @Autowired
+    private TransferRequestValidator transferRequestValidator;
+
+    // @Valid TransferRequest bodies are checked by the hand-written validator instead of Hibernate Validator
+    @InitBinder("transferRequest")
+    public void initTransferRequestBinder(WebDataBinder binder) {
+        binder.setValidator(transferRequestValidator);
+    }
+
     // POST /transfer — transfer between own cards (USER only)
     @PostMapping
     @PreAuthorize("hasRole('USER')")
@@ -33,22 +50,66 @@ public class TransferController {
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transfer completed successfully",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Transfer error",
-            content = @Content(schema = @Schema(implementation = ApiResponse.class))),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Transfer rejected, e.g. insufficient funds or card not active",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights or not own card"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Card not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Card busy, retry after the Retry-After delay")
     })
     public ResponseEntity<ApiResponse> transferBetweenOwnCards(@Valid @RequestBody TransferRequest request) {
-        try {
-            cardService.transferBetweenOwnCards(
-                request.getFromCardId(),
-                request.getToCardId(),
-                request.getAmount()
-            );
-            return ResponseEntity.ok(new ApiResponse(true, "Transfer completed successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(new ApiResponse(false, e.getMessage()));
-        }
+        cardService.transferBetweenOwnCards(
+            request.getFromCardId(),
+            request.getToCardId(),
+            request.getAmount()
+        );
+        return ResponseEntity.ok(new ApiResponse(true, "Transfer completed successfully"));
+    }
+
+    // POST /transfer/async — queue a transfer and poll its status (USER only)
+    @PostMapping("/async")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(
+        summary = "Submit transfer for asynchronous processing",
+        description = "Queue a transfer between own cards; the Location header points to its status"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Transfer accepted and queued",
+            content = @Content(schema = @Schema(implementation = TransferStatusResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Transfer rejected",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights or not own card"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<TransferStatusResponse> submitTransfer(@Valid @RequestBody TransferRequest request) {
+        TransferStatusResponse transfer = cardService.submitTransfer(
+            request.getFromCardId(),
+            request.getToCardId(),
+            request.getAmount(),
+            request.getDescription()
+        );
+        URI statusUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/transfer/{id}")
+                .buildAndExpand(transfer.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(statusUrl).body(transfer);
+    }
+
+    // GET /transfer/{id} — status of a queued transfer (USER only)
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(
+        summary = "Get transfer status",
+        description = "PENDING until processed, then COMPLETED or FAILED with the reason"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transfer status",
+            content = @Content(schema = @Schema(implementation = TransferStatusResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transfer not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Insufficient access rights or not own transfer")
+    })
+    public ResponseEntity<TransferStatusResponse> getTransferStatus(
+            @Parameter(description = "Transfer ID", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(cardService.getTransferStatus(id));
     }
 
     // Helper class for API responses
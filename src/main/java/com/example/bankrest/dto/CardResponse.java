@@ -1,6 +1,7 @@
 package com.example.bankrest.dto;
 
 import com.example.bankrest.entity.Card;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,6 +16,10 @@ public class CardResponse {
     private BigDecimal balance;
     private LocalDateTime createdAt;
 
+    // Version of the card row for ETags; not part of the JSON body
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
     // Constructors
     public CardResponse() {}
 
@@ -86,4 +91,12 @@ public class CardResponse {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,96 @@
+package com.example.bankrest.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class CardStatementResponse {
+    private Long cardId;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private BigDecimal totalCredits;
+    private BigDecimal totalDebits;
+    private Long transactionCount;
+
+    // Constructors
+    public CardStatementResponse() {}
+
+    public CardStatementResponse(Long cardId, LocalDate periodStart, LocalDate periodEnd,
+                                 BigDecimal openingBalance, BigDecimal closingBalance,
+                                 BigDecimal totalCredits, BigDecimal totalDebits, Long transactionCount) {
+        this.cardId = cardId;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.openingBalance = openingBalance;
+        this.closingBalance = closingBalance;
+        this.totalCredits = totalCredits;
+        this.totalDebits = totalDebits;
+        this.transactionCount = transactionCount;
+    }
+
+    // Getters and setters
+    public Long getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(Long cardId) {
+        this.cardId = cardId;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(LocalDate periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public void setClosingBalance(BigDecimal closingBalance) {
+        this.closingBalance = closingBalance;
+    }
+
+    public BigDecimal getTotalCredits() {
+        return totalCredits;
+    }
+
+    public void setTotalCredits(BigDecimal totalCredits) {
+        this.totalCredits = totalCredits;
+    }
+
+    public BigDecimal getTotalDebits() {
+        return totalDebits;
+    }
+
+    public void setTotalDebits(BigDecimal totalDebits) {
+        this.totalDebits = totalDebits;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bankrest.dto;
+
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.event.CardChangedEvent;
+
+import java.math.BigDecimal;
+
+public class CardUpdateResponse {
+    private Long cardId;
+    private CardChangedEvent.ChangeType changeType;
+    private Card.CardStatus status;
+    private BigDecimal balance;
+
+    // Constructors
+    public CardUpdateResponse() {}
+
+    public CardUpdateResponse(Long cardId, CardChangedEvent.ChangeType changeType,
+                              Card.CardStatus status, BigDecimal balance) {
+        this.cardId = cardId;
+        this.changeType = changeType;
+        this.status = status;
+        this.balance = balance;
+    }
+
+    // Getters and setters
+    public Long getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(Long cardId) {
+        this.cardId = cardId;
+    }
+
+    public CardChangedEvent.ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(CardChangedEvent.ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public Card.CardStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Card.CardStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
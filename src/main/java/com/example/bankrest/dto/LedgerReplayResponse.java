@@ -0,0 +1,83 @@
+package com.example.bankrest.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class LedgerReplayResponse {
+    private int cardsRebuilt;
+    private long unbalancedJournals;
+    private List<Mismatch> mismatches;
+
+    // Constructors
+    public LedgerReplayResponse() {}
+
+    public LedgerReplayResponse(int cardsRebuilt, long unbalancedJournals, List<Mismatch> mismatches) {
+        this.cardsRebuilt = cardsRebuilt;
+        this.unbalancedJournals = unbalancedJournals;
+        this.mismatches = mismatches;
+    }
+
+    // Getters and setters
+    public int getCardsRebuilt() {
+        return cardsRebuilt;
+    }
+
+    public void setCardsRebuilt(int cardsRebuilt) {
+        this.cardsRebuilt = cardsRebuilt;
+    }
+
+    public long getUnbalancedJournals() {
+        return unbalancedJournals;
+    }
+
+    public void setUnbalancedJournals(long unbalancedJournals) {
+        this.unbalancedJournals = unbalancedJournals;
+    }
+
+    public List<Mismatch> getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(List<Mismatch> mismatches) {
+        this.mismatches = mismatches;
+    }
+
+    // A card whose balance (with its shards) differs from its ledger balance
+    public static class Mismatch {
+        private Long cardId;
+        private BigDecimal cardBalance;
+        private BigDecimal ledgerBalance;
+
+        public Mismatch() {}
+
+        public Mismatch(Long cardId, BigDecimal cardBalance, BigDecimal ledgerBalance) {
+            this.cardId = cardId;
+            this.cardBalance = cardBalance;
+            this.ledgerBalance = ledgerBalance;
+        }
+
+        public Long getCardId() {
+            return cardId;
+        }
+
+        public void setCardId(Long cardId) {
+            this.cardId = cardId;
+        }
+
+        public BigDecimal getCardBalance() {
+            return cardBalance;
+        }
+
+        public void setCardBalance(BigDecimal cardBalance) {
+            this.cardBalance = cardBalance;
+        }
+
+        public BigDecimal getLedgerBalance() {
+            return ledgerBalance;
+        }
+
+        public void setLedgerBalance(BigDecimal ledgerBalance) {
+            this.ledgerBalance = ledgerBalance;
+        }
+    }
+}
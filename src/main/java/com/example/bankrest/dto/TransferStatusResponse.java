@@ -0,0 +1,88 @@
+package com.example.bankrest.dto;
+
+import com.example.bankrest.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TransferStatusResponse {
+    private Long id;
+    private Long fromCardId;
+    private Long toCardId;
+    private BigDecimal amount;
+    private Transaction.TransactionStatus status;
+    private String failureReason;
+    private LocalDateTime submittedAt;
+
+    // Constructors
+    public TransferStatusResponse() {}
+
+    public TransferStatusResponse(Long id, Long fromCardId, Long toCardId, BigDecimal amount,
+                                  Transaction.TransactionStatus status, String failureReason,
+                                  LocalDateTime submittedAt) {
+        this.id = id;
+        this.fromCardId = fromCardId;
+        this.toCardId = toCardId;
+        this.amount = amount;
+        this.status = status;
+        this.failureReason = failureReason;
+        this.submittedAt = submittedAt;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getFromCardId() {
+        return fromCardId;
+    }
+
+    public void setFromCardId(Long fromCardId) {
+        this.fromCardId = fromCardId;
+    }
+
+    public Long getToCardId() {
+        return toCardId;
+    }
+
+    public void setToCardId(Long toCardId) {
+        this.toCardId = toCardId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Transaction.TransactionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Transaction.TransactionStatus status) {
+        this.status = status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+}
@@ -38,6 +38,10 @@ public class Card {
     @Column(name = "balance", nullable = false, precision = 15, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    // 0 = plain balance; otherwise credits go to this many card_balance_shards rows
+    @Column(name = "balance_shards", nullable = false)
+    private int balanceShards;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -77,6 +81,10 @@ public class Card {
         return balance;
     }
 
+    public int getBalanceShards() {
+        return balanceShards;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -118,6 +126,10 @@ public class Card {
         this.balance = balance;
     }
 
+    public void setBalanceShards(int balanceShards) {
+        this.balanceShards = balanceShards;
+    }
+
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
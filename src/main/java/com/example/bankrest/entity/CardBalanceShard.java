@@ -0,0 +1,45 @@
+package com.example.bankrest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Credits to a sharded card not yet folded into cards.balance
+@Entity
+@Table(name = "card_balance_shards")
+@IdClass(CardBalanceShard.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBalanceShard {
+
+    @Id
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Id
+    @Column(name = "shard", nullable = false)
+    private Integer shard;
+
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Column(name = "credit_count", nullable = false)
+    private Integer creditCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long cardId;
+        private Integer shard;
+    }
+}
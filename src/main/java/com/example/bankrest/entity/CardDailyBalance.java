@@ -0,0 +1,50 @@
+package com.example.bankrest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "card_daily_balances")
+@IdClass(CardDailyBalance.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardDailyBalance {
+
+    @Id
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Id
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate balanceDate;
+
+    @Column(name = "opening_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal openingBalance;
+
+    @Column(name = "closing_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal closingBalance;
+
+    @Column(name = "total_credits", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalCredits = BigDecimal.ZERO;
+
+    @Column(name = "total_debits", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalDebits = BigDecimal.ZERO;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Integer transactionCount = 0;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long cardId;
+        private LocalDate balanceDate;
+    }
+}
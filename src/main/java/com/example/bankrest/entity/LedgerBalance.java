@@ -0,0 +1,28 @@
+package com.example.bankrest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A card's balance from all postings below LedgerState.materializedTxid
+@Entity
+@Table(name = "ledger_balances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalance {
+
+    @Id
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Column(name = "last_posted_at")
+    private LocalDateTime lastPostedAt;
+}
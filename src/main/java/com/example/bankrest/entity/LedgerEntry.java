@@ -0,0 +1,65 @@
+package com.example.bankrest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One posting of a journal; the postings of a journal (entry type + reference) sum to zero.
+// Written only by LedgerService with batched JDBC inserts and never updated
+@Entity
+@Table(name = "ledger_entries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    // Transaction id of a TRANSFER, card id of an OPENING_BALANCE
+    @Column(name = "reference_id", nullable = false)
+    private Long referenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account", nullable = false, length = 20)
+    private Account account;
+
+    // Set for CARD postings only
+    @Column(name = "card_id")
+    private Long cardId;
+
+    // Positive for credits, negative for debits
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    // Id of the database transaction that wrote the posting, filled in by Postgres. Schemas generated
+    // from the entities (tests on H2) default it to 0 and have no ledger_state row, so reads there
+    // report cards.balance instead of the ledger
+    @ColumnDefault("0")
+    @Column(name = "txid", insertable = false, updatable = false)
+    private Long txid;
+
+    public enum EntryType {
+        OPENING_BALANCE, TRANSFER
+    }
+
+    public enum Account {
+        // A card's balance
+        CARD,
+        // Counterpart of balances a card was opened with
+        OPENING
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bankrest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Single row: postings with a txid below materializedTxid are included in ledger_balances
+@Entity
+@Table(name = "ledger_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerState {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private Integer id;
+
+    @Column(name = "materialized_txid", nullable = false)
+    private Long materializedTxid;
+}
@@ -0,0 +1,44 @@
+package com.example.bankrest.entity;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An event waiting to be published; written by OutboxWriter and deleted by OutboxPublisher
+@Entity
+@Table(name = "outbox", indexes = @Index(name = "idx_outbox_card_id", columnList = "card_id, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private EventType eventType;
+
+    // Events of one card are published in id order
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    // JSON object
+    @JsonRawValue
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum EventType {
+        CARD_CREATED, CARD_BLOCKED, CARD_ACTIVATED, CARD_EXPIRED, CARD_DELETED,
+        // A transfer is published once for each of its cards
+        TRANSFER_DEBITED, TRANSFER_CREDITED
+    }
+}
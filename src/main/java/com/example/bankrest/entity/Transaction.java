@@ -27,10 +27,19 @@ public class Transaction {
     @JoinColumn(name = "to_card_id", nullable = false)
     private Card toCard;
 
+    // Denormalized owners of the source and destination cards,
+    // so per-user history can be read without joining cards
+    @Column(name = "from_owner_id", nullable = false)
+    private Long fromOwnerId;
+
+    @Column(name = "to_owner_id", nullable = false)
+    private Long toOwnerId;
+
     @Column(name = "amount", nullable = false, precision = 15, scale = 2)
     private BigDecimal amount;
 
-    @Column(name = "transaction_date", nullable = false)
+    // Partition key of the transactions table, never moved after insert
+    @Column(name = "transaction_date", nullable = false, updatable = false)
     private LocalDateTime transactionDate = LocalDateTime.now();
 
     @Column(name = "description", length = 255)
@@ -40,6 +49,20 @@ public class Transaction {
     @Column(name = "status", nullable = false, length = 20)
     private TransactionStatus status = TransactionStatus.COMPLETED;
 
+    // Set when a queued transfer ends FAILED
+    @Column(name = "failure_reason", length = 255)
+    private String failureReason;
+
+    @PrePersist
+    void fillOwnerIds() {
+        if (fromOwnerId == null && fromCard != null) {
+            fromOwnerId = fromCard.getOwner().getId();
+        }
+        if (toOwnerId == null && toCard != null) {
+            toOwnerId = toCard.getOwner().getId();
+        }
+    }
+
     public enum TransactionStatus {
         PENDING, COMPLETED, FAILED, CANCELLED
     }
@@ -0,0 +1,35 @@
+package com.example.bankrest.event;
+
+/**
+ * Published by {@code CardService} inside the transaction that changed a card.
+ * Listeners that must only observe committed state use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ */
+public class CardChangedEvent {
+
+    private final Long cardId;
+    private final String ownerUsername;
+    private final ChangeType changeType;
+
+    public CardChangedEvent(Long cardId, String ownerUsername, ChangeType changeType) {
+        this.cardId = cardId;
+        this.ownerUsername = ownerUsername;
+        this.changeType = changeType;
+    }
+
+    public Long getCardId() {
+        return cardId;
+    }
+
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public enum ChangeType {
+        CREATED, BALANCE_CHANGED, BLOCKED, ACTIVATED, EXPIRED, DELETED
+    }
+}
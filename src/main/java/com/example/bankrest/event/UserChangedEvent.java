@@ -0,0 +1,18 @@
+package com.example.bankrest.event;
+
+/**
+ * Published when a user account is created or changed, so that anything
+ * cached per principal can be dropped once the change is committed.
+ */
+public class UserChangedEvent {
+
+    private final String username;
+
+    public UserChangedEvent(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bankrest.exception;
+
+public class CardBusyException extends DomainException {
+    public CardBusyException(String message) {
+        super(message);
+    }
+
+    public CardBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bankrest.exception;
+
+// Transfers reference their cards with ON DELETE RESTRICT, so a card with history is kept
+public class CardHasTransactionsException extends DomainException {
+
+    private final Long cardId;
+
+    public CardHasTransactionsException(Long cardId) {
+        super("Cannot delete card with transaction history");
+        this.cardId = cardId;
+    }
+
+    public Long getCardId() {
+        return cardId;
+    }
+}
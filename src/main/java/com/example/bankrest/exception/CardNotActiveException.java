@@ -1,6 +1,6 @@
 package com.example.bankrest.exception;
 
-public class CardNotActiveException extends RuntimeException {
+public class CardNotActiveException extends DomainException {
     public CardNotActiveException(String message) {
         super(message);
     }
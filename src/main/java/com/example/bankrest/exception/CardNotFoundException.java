@@ -1,11 +1,16 @@
 package com.example.bankrest.exception;
 
-public class CardNotFoundException extends RuntimeException {
-    public CardNotFoundException(String message) {
-        super(message);
+// The message is constant, so a throw does not build a string; the id is kept for logging
+public class CardNotFoundException extends DomainException {
+
+    private final Long cardId;
+
+    public CardNotFoundException(Long cardId) {
+        super("Card not found");
+        this.cardId = cardId;
     }
 
-    public CardNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+    public Long getCardId() {
+        return cardId;
     }
 }
@@ -0,0 +1,18 @@
+package com.example.bankrest.exception;
+
+/**
+ * Base class of the business rejections thrown by the services, such as a transfer over the
+ * balance or a card that is not active. They are routine outcomes of valid requests, so they
+ * record no stack trace and take no suppressed exceptions: throwing one costs an allocation,
+ * not a walk of the stack. {@link GlobalExceptionHandler} maps each type to its HTTP status.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
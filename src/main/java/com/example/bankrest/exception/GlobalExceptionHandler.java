@@ -2,6 +2,7 @@ package com.example.bankrest.exception;
 
 import com.example.bankrest.dto.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -71,6 +72,44 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
 
+    // Handle domain exceptions thrown by the services, by type
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ErrorResponse> handleDomainException(DomainException ex, HttpServletRequest request) {
+
+        HttpStatus status = statusOf(ex);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.getReasonPhrase(),
+                ex.getMessage(),
+                status.value(),
+                request.getRequestURI()
+        );
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (ex instanceof CardBusyException) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(errorResponse);
+    }
+
+    static HttpStatus statusOf(DomainException ex) {
+        if (ex instanceof CardNotFoundException || ex instanceof UserNotFoundException
+                || ex instanceof TransferNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (ex instanceof UnauthorizedCardAccessException) {
+            return HttpStatus.FORBIDDEN;
+        }
+        if (ex instanceof CardBusyException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        if (ex instanceof CardHasTransactionsException) {
+            return HttpStatus.CONFLICT;
+        }
+        // Insufficient funds, card not active
+        return HttpStatus.BAD_REQUEST;
+    }
+
     // Handle business logic errors
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleBusinessLogicException(
@@ -1,6 +1,6 @@
 package com.example.bankrest.exception;
 
-public class InsufficientBalanceException extends RuntimeException {
+public class InsufficientBalanceException extends DomainException {
     public InsufficientBalanceException(String message) {
         super(message);
     }
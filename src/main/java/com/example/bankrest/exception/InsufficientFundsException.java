@@ -1,11 +1,14 @@
 package com.example.bankrest.exception;
 
-public class InsufficientFundsException extends RuntimeException {
+public class InsufficientFundsException extends DomainException {
+
+    static final String MESSAGE = "Insufficient funds for this operation";
+
     public InsufficientFundsException(String message) {
         super(message);
     }
 
     public InsufficientFundsException() {
-        super("Insufficient funds for this operation");
+        super(MESSAGE);
     }
 }
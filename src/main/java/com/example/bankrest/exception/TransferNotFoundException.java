@@ -0,0 +1,15 @@
+package com.example.bankrest.exception;
+
+public class TransferNotFoundException extends DomainException {
+
+    private final Long transferId;
+
+    public TransferNotFoundException(Long transferId) {
+        super("Transfer not found");
+        this.transferId = transferId;
+    }
+
+    public Long getTransferId() {
+        return transferId;
+    }
+}
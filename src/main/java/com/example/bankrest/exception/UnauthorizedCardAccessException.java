@@ -1,6 +1,6 @@
 package com.example.bankrest.exception;
 
-public class UnauthorizedCardAccessException extends RuntimeException {
+public class UnauthorizedCardAccessException extends DomainException {
     public UnauthorizedCardAccessException(String message) {
         super(message);
     }
@@ -1,11 +1,21 @@
 package com.example.bankrest.exception;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends DomainException {
+
+    private final Long userId;
+
     public UserNotFoundException(String message) {
         super(message);
+        this.userId = null;
     }
 
     public UserNotFoundException(Long userId) {
-        super("User not found with id: " + userId);
+        super("User not found");
+        this.userId = userId;
+    }
+
+    // Null when the user was looked up by name
+    public Long getUserId() {
+        return userId;
     }
 }
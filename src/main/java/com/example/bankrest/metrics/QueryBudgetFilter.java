@@ -0,0 +1,109 @@
+package com.example.bankrest.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and database time of each HTTP request, as recorded by
+ * the datasource-proxy wrapper from {@code DataSourceProxyConfig}.
+ * <p>
+ * Per request the totals are:
+ * <ul>
+ *   <li>recorded as {@code db.queries.per.request} and {@code db.time.per.request}, tagged by URI template;</li>
+ *   <li>logged at WARN when they exceed {@code db.query-budget.max-queries} or {@code db.query-budget.max-time};</li>
+ *   <li>stored in the {@link #QUERY_COUNT_ATTRIBUTE} request attribute for tests;</li>
+ *   <li>added as {@code X-Query-Count} / {@code X-Query-Time-Ms} headers when {@code db.query-budget.headers=true}.</li>
+ * </ul>
+ * Runs before the security filter chain so the user lookup of the JWT filter is included.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@ConditionalOnProperty(name = "db.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".QUERY_COUNT";
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    // Absent in web slice tests, which still need the count attribute
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${db.query-budget.max-queries:20}")
+    private int maxQueries;
+
+    @Value("${db.query-budget.max-time:200ms}")
+    private Duration maxTime;
+
+    @Value("${db.query-budget.headers:false}")
+    private boolean headers;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCountHolder.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCount total = QueryCountHolder.getGrandTotal();
+            QueryCountHolder.clear();
+            record(request, response, total.getTotal(), total.getTime());
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long queries, long timeMillis) {
+        request.setAttribute(QUERY_COUNT_ATTRIBUTE, queries);
+        if (headers && !response.isCommitted()) {
+            addHeaders(response, queries, timeMillis);
+        }
+
+        if (meterRegistry != null) {
+            // URI templates only, so the tag stays bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("db.queries.per.request")
+                    .description("SQL statements executed per HTTP request")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(queries);
+            Timer.builder("db.time.per.request")
+                    .description("Database time per HTTP request")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(timeMillis, TimeUnit.MILLISECONDS);
+        }
+
+        if (queries > maxQueries || timeMillis > maxTime.toMillis()) {
+            log.warn("Query budget exceeded: {} {} ran {} statements in {} ms (budget {} statements, {} ms)",
+                    request.getMethod(), request.getRequestURI(), queries, timeMillis, maxQueries, maxTime.toMillis());
+        }
+    }
+
+    static void addHeaders(HttpServletResponse response, long queries, long timeMillis) {
+        response.setHeader(QUERY_COUNT_HEADER, Long.toString(queries));
+        response.setHeader(QUERY_TIME_HEADER, Long.toString(timeMillis));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankrest.metrics;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the query count headers before a response body is written. By then the
+ * response is usually committed, too late for {@link QueryBudgetFilter} to set them.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = {"db.query-budget.enabled", "db.query-budget.headers"}, havingValue = "true")
+public class QueryBudgetHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (response instanceof ServletServerHttpResponse servletResponse) {
+            QueryCount total = QueryCountHolder.getGrandTotal();
+            QueryBudgetFilter.addHeaders(servletResponse.getServletResponse(), total.getTotal(), total.getTime());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankrest.metrics;
+
+import com.example.bankrest.exception.CardNotActiveException;
+import com.example.bankrest.exception.CardNotFoundException;
+import com.example.bankrest.exception.InsufficientFundsException;
+import com.example.bankrest.exception.UnauthorizedCardAccessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts transfers by outcome as {@code cards.transfers{outcome=...}}.
+ * Failures are mapped to a fixed set of outcomes by exception type, so the
+ * tag never carries exception messages, card ids or usernames.
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Outcome {
+        SUCCESS, INSUFFICIENT_FUNDS, CARD_NOT_ACTIVE, UNAUTHORIZED, CARD_NOT_FOUND, INVALID_REQUEST, ERROR
+    }
+
+    private final Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        // Registered up front so every outcome is scraped, even at zero
+        for (Outcome outcome : Outcome.values()) {
+            counters.put(outcome, Counter.builder("cards.transfers")
+                    .description("Transfers between own cards by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public void recordSuccess() {
+        counters.get(Outcome.SUCCESS).increment();
+    }
+
+    public void recordFailure(RuntimeException failure) {
+        counters.get(outcomeOf(failure)).increment();
+    }
+
+    static Outcome outcomeOf(RuntimeException failure) {
+        if (failure instanceof InsufficientFundsException) {
+            return Outcome.INSUFFICIENT_FUNDS;
+        }
+        if (failure instanceof CardNotActiveException) {
+            return Outcome.CARD_NOT_ACTIVE;
+        }
+        if (failure instanceof UnauthorizedCardAccessException) {
+            return Outcome.UNAUTHORIZED;
+        }
+        if (failure instanceof CardNotFoundException) {
+            return Outcome.CARD_NOT_FOUND;
+        }
+        if (failure instanceof IllegalArgumentException) {
+            return Outcome.INVALID_REQUEST;
+        }
+        return Outcome.ERROR;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.bankrest.outbox;
+
+import com.example.bankrest.entity.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes outbox rows to the {@link OutboxSink} in batches, at least once and in order per card.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} in id order, so several nodes can
+ * poll at once without waiting on each other. If an earlier row of a claimed card is held by
+ * another node, the card's rows are left for a later poll, so a card's events are published in
+ * id order. That is the order they happened in except for credits into a card with balance
+ * shards (see {@link OutboxWriter}). Published rows are deleted in the claiming transaction; if
+ * the sink or the commit fails, the whole batch is published again.
+ * <p>
+ * {@code outbox.lag} is the age of the oldest unpublished row, measured on every poll.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher.enabled", havingValue = "true")
+public class OutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    static final String OLDEST_SQL = "SELECT created_at FROM outbox ORDER BY id LIMIT 1";
+
+    static final String CLAIM_SQL =
+            "SELECT id, event_type, card_id, payload, created_at FROM outbox " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // Earliest row of each claimed card that this node did not claim, i.e. another node holds
+    static final String HELD_ELSEWHERE_SQL =
+            "SELECT card_id, MIN(id) AS id FROM outbox " +
+            "WHERE card_id IN (:cardIds) AND id < :lastId AND id NOT IN (:claimedIds) GROUP BY card_id";
+
+    static final String DELETE_SQL = "DELETE FROM outbox WHERE id IN (:ids)";
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            OutboxEvent.EventType.valueOf(rs.getString("event_type")),
+            rs.getLong("card_id"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+
+    private final Counter published;
+    private final Counter failures;
+    private volatile double lagSeconds;
+
+    public OutboxPublisher(JdbcTemplate jdbcTemplate,
+                           NamedParameterJdbcTemplate namedJdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           OutboxSink sink,
+                           MeterRegistry meterRegistry,
+                           @Value("${outbox.publisher.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+
+        Gauge.builder("outbox.lag", this, publisher -> publisher.lagSeconds)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.published = Counter.builder("outbox.published")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.publish.failures")
+                .description("Outbox batches that failed and are published again")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.publisher.poll-interval:500ms}")
+    public void poll() {
+        updateLag(LocalDateTime.now());
+        try {
+            Integer count;
+            do {
+                count = transactionTemplate.execute(status -> publishBatch());
+            } while (count != null && count == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Publishing outbox events failed, retrying on the next poll", e);
+        }
+    }
+
+    void updateLag(LocalDateTime now) {
+        List<Timestamp> oldest = jdbcTemplate.queryForList(OLDEST_SQL, Timestamp.class);
+        lagSeconds = oldest.isEmpty()
+                ? 0
+                : Math.max(0, Duration.between(oldest.get(0).toLocalDateTime(), now).toMillis() / 1000.0);
+    }
+
+    // Returns the number of events published
+    int publishBatch() {
+        List<OutboxEvent> claimed = jdbcTemplate.query(CLAIM_SQL, EVENT_MAPPER, batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> events = withoutCardsHeldElsewhere(claimed);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events);
+        namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids",
+                events.stream().map(OutboxEvent::getId).toList()));
+        published.increment(events.size());
+        return events.size();
+    }
+
+    private List<OutboxEvent> withoutCardsHeldElsewhere(List<OutboxEvent> claimed) {
+        List<Long> claimedIds = claimed.stream().map(OutboxEvent::getId).toList();
+        Set<Long> cardIds = claimed.stream().map(OutboxEvent::getCardId).collect(Collectors.toSet());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cardIds", cardIds)
+                .addValue("lastId", claimedIds.get(claimedIds.size() - 1))
+                .addValue("claimedIds", claimedIds);
+
+        Map<Long, Long> heldFrom = new HashMap<>();
+        namedJdbcTemplate.query(HELD_ELSEWHERE_SQL, params,
+                rs -> {
+                    heldFrom.put(rs.getLong("card_id"), rs.getLong("id"));
+                });
+        if (heldFrom.isEmpty()) {
+            return claimed;
+        }
+
+        List<OutboxEvent> events = new ArrayList<>(claimed.size());
+        for (OutboxEvent event : claimed) {
+            Long held = heldFrom.get(event.getCardId());
+            if (held == null || event.getId() < held) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankrest.outbox;
+
+import com.example.bankrest.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxPublisher} delivers events, picked with {@code outbox.sink}
+ * ({@code log}, {@code file} or {@code memory}).
+ * <p>
+ * Called with a batch in id order while its rows are still locked. Returning means the
+ * batch is delivered and its rows are deleted; throwing leaves all of them for a later poll,
+ * so a sink may see an event again and consumers must tolerate duplicates.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,101 @@
+package com.example.bankrest.outbox;
+
+import com.example.bankrest.entity.OutboxEvent;
+import com.example.bankrest.entity.Transaction;
+import com.example.bankrest.event.CardChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes outbox rows in the transaction of the change they describe, so an event exists
+ * exactly when its change committed.
+ * <p>
+ * Card lifecycle changes arrive as {@link CardChangedEvent}s, which {@code CardService} and
+ * {@code CardExpirySweeper} publish inside their transactions. Completed transfers are written by
+ * {@code CardService} with one row per card, so each card's events are a complete stream.
+ * Balance changes are not written separately: the transfer rows carry them.
+ * <p>
+ * Rows are ordered by id, and a card's rows commit in id order because every writer holds the
+ * card row lock from before the insert until commit. Credits into a card with balance shards
+ * lock a shard instead, so their {@code TRANSFER_CREDITED} rows can commit out of id order and
+ * are not ordered against each other or the card's other events.
+ */
+@Component
+@Transactional
+public class OutboxWriter {
+
+    static final String APPEND_SQL =
+            "INSERT INTO outbox (event_type, card_id, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @EventListener
+    public void onCardChanged(CardChangedEvent event) {
+        OutboxEvent.EventType eventType = eventTypeOf(event.getChangeType());
+        if (eventType == null) {
+            return;
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("cardId", event.getCardId());
+        payload.put("ownerUsername", event.getOwnerUsername());
+        jdbcTemplate.update(APPEND_SQL, eventType.name(), event.getCardId(), toJson(payload),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // Appends the rows of all transfers in one JDBC batch
+    public void recordTransfers(List<Transaction> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(transfers.size() * 2);
+        for (Transaction transfer : transfers) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("transferId", transfer.getId());
+            payload.put("fromCardId", transfer.getFromCard().getId());
+            payload.put("toCardId", transfer.getToCard().getId());
+            payload.put("amount", transfer.getAmount());
+            String json = toJson(payload);
+            rows.add(new Object[]{OutboxEvent.EventType.TRANSFER_DEBITED.name(), transfer.getFromCard().getId(), json, createdAt});
+            rows.add(new Object[]{OutboxEvent.EventType.TRANSFER_CREDITED.name(), transfer.getToCard().getId(), json, createdAt});
+        }
+        jdbcTemplate.batchUpdate(APPEND_SQL, rows);
+    }
+
+    static OutboxEvent.EventType eventTypeOf(CardChangedEvent.ChangeType changeType) {
+        return switch (changeType) {
+            case CREATED -> OutboxEvent.EventType.CARD_CREATED;
+            case BLOCKED -> OutboxEvent.EventType.CARD_BLOCKED;
+            case ACTIVATED -> OutboxEvent.EventType.CARD_ACTIVATED;
+            case EXPIRED -> OutboxEvent.EventType.CARD_EXPIRED;
+            case DELETED -> OutboxEvent.EventType.CARD_DELETED;
+            case BALANCE_CHANGED -> null;
+        };
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload could not be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.entity.CardBalanceShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CardBalanceShardRepository extends JpaRepository<CardBalanceShard, CardBalanceShard.Key> {
+
+    // Returns 0 when the shard is gone, i.e. the card was resharded or unsharded meanwhile
+    @Modifying
+    @Query("UPDATE CardBalanceShard s SET s.balance = s.balance + :amount, s.creditCount = s.creditCount + 1, " +
+           "s.updatedAt = :updatedAt WHERE s.cardId = :cardId AND s.shard = :shard")
+    int credit(@Param("cardId") Long cardId, @Param("shard") int shard,
+               @Param("amount") BigDecimal amount, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Credits collected on the card's shards and not folded yet
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM CardBalanceShard s WHERE s.cardId = :cardId")
+    BigDecimal sumBalanceByCardId(@Param("cardId") Long cardId);
+
+    // Locked in shard order; credits arriving meanwhile wait for the fold to commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CardBalanceShard s WHERE s.cardId = :cardId ORDER BY s.shard")
+    List<CardBalanceShard> lockByCardId(@Param("cardId") Long cardId);
+}
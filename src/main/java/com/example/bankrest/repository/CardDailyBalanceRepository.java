@@ -0,0 +1,52 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.entity.CardDailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface CardDailyBalanceRepository extends JpaRepository<CardDailyBalance, CardDailyBalance.Key> {
+
+    // Latest snapshot on or before the given day
+    Optional<CardDailyBalance> findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(Long cardId, LocalDate date);
+
+    // Earliest snapshot after the given day
+    Optional<CardDailyBalance> findFirstByCardIdAndBalanceDateGreaterThanOrderByBalanceDateAsc(Long cardId, LocalDate date);
+
+    @Query("SELECT COALESCE(SUM(b.totalCredits), 0) AS totalCredits, COALESCE(SUM(b.totalDebits), 0) AS totalDebits, " +
+           "COALESCE(SUM(b.transactionCount), 0) AS transactionCount " +
+           "FROM CardDailyBalance b WHERE b.cardId = :cardId AND b.balanceDate BETWEEN :startDate AND :endDate")
+    MovementTotals sumMovements(@Param("cardId") Long cardId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Atomic upsert of the day's row; concurrent transfers on the same card only add deltas.
+    // count is the number of transfers behind the movement (several for folded balance shards)
+    @Modifying
+    @Query(value = "INSERT INTO card_daily_balances " +
+                   "(card_id, balance_date, opening_balance, closing_balance, total_credits, total_debits, transaction_count) " +
+                   "VALUES (:cardId, :date, :balanceBefore, :balanceBefore + :credit - :debit, :credit, :debit, :count) " +
+                   "ON CONFLICT (card_id, balance_date) DO UPDATE SET " +
+                   "closing_balance = card_daily_balances.closing_balance + EXCLUDED.total_credits - EXCLUDED.total_debits, " +
+                   "total_credits = card_daily_balances.total_credits + EXCLUDED.total_credits, " +
+                   "total_debits = card_daily_balances.total_debits + EXCLUDED.total_debits, " +
+                   "transaction_count = card_daily_balances.transaction_count + EXCLUDED.transaction_count",
+           nativeQuery = true)
+    void applyMovement(@Param("cardId") Long cardId, @Param("date") LocalDate date,
+                       @Param("balanceBefore") BigDecimal balanceBefore,
+                       @Param("credit") BigDecimal credit, @Param("debit") BigDecimal debit,
+                       @Param("count") int count);
+
+    interface MovementTotals {
+        BigDecimal getTotalCredits();
+
+        BigDecimal getTotalDebits();
+
+        Long getTransactionCount();
+    }
+}
@@ -4,11 +4,17 @@ import com.example.bankrest.entity.Card;
 import com.example.bankrest.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +23,8 @@ public interface CardRepository extends JpaRepository<Card, Long> {
 
     List<Card> findByOwner(User owner);
 
+    List<Card> findByOwnerOrderById(User owner);
+
     List<Card> findByOwnerId(Long ownerId);
 
     // Add methods with pagination
@@ -37,4 +45,84 @@ public interface CardRepository extends JpaRepository<Card, Long> {
     Page<Card> findByOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") Card.CardStatus status, Pageable pageable);
 
     boolean existsByEncryptedCardNumber(String encryptedCardNumber);
+
+    // Targeted updates: bulk JPQL bypasses @UpdateTimestamp, so updatedAt is set explicitly
+
+    // Returns 0 when the balance no longer covers the amount
+    @Modifying
+    @Query("UPDATE Card c SET c.balance = c.balance - :amount, c.updatedAt = :updatedAt " +
+           "WHERE c.id = :id AND c.balance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE Card c SET c.balance = c.balance + :amount, c.updatedAt = :updatedAt WHERE c.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE Card c SET c.status = :status, c.updatedAt = :updatedAt WHERE c.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") Card.CardStatus status, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE Card c SET c.balanceShards = :balanceShards, c.updatedAt = :updatedAt WHERE c.id = :id")
+    int updateBalanceShards(@Param("id") Long id, @Param("balanceShards") int balanceShards, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Read from the database, not from a card already loaded in this transaction
+    @Query("SELECT c.balance FROM Card c WHERE c.id = :id")
+    BigDecimal findBalanceById(@Param("id") Long id);
+
+    @Query("SELECT c.id FROM Card c WHERE c.balanceShards > 0")
+    List<Long> findShardedIds();
+
+    // Rows are locked in id order, so two batches sharing cards cannot deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id IN :ids ORDER BY c.id")
+    List<Card> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Current status and balance behind a batch of change events, without loading entities;
+    // the balance includes the shards of sharded cards
+    @Query("SELECT c.id AS id, c.status AS status, " +
+           "c.balance + COALESCE((SELECT SUM(s.balance) FROM CardBalanceShard s WHERE s.cardId = c.id), 0) AS balance " +
+           "FROM Card c WHERE c.id IN :ids")
+    List<CardState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // What a card's ETag is derived from, without decrypting the card number: updatedAt and the
+    // ledger posting times that LedgerService.applyBalances folds into it
+    @Query("SELECT c.id AS id, c.owner.username AS ownerUsername, c.updatedAt AS updatedAt, " +
+           "(SELECT s.materializedTxid FROM LedgerState s WHERE s.id = 1) AS materializedTxid, " +
+           "(SELECT b.lastPostedAt FROM LedgerBalance b WHERE b.cardId = c.id) AS materializedPostedAt, " +
+           "(SELECT MAX(e.postedAt) FROM LedgerEntry e WHERE e.cardId = c.id " +
+           "AND e.txid >= (SELECT s.materializedTxid FROM LedgerState s WHERE s.id = 1)) AS unappliedPostedAt " +
+           "FROM Card c WHERE c.id = :id")
+    Optional<CardVersion> findVersionById(@Param("id") Long id);
+
+    // Same order as getCardsByUser, since the list ETag is order-sensitive
+    @Query("SELECT c.id AS id, c.owner.username AS ownerUsername, c.updatedAt AS updatedAt, " +
+           "(SELECT s.materializedTxid FROM LedgerState s WHERE s.id = 1) AS materializedTxid, " +
+           "(SELECT b.lastPostedAt FROM LedgerBalance b WHERE b.cardId = c.id) AS materializedPostedAt, " +
+           "(SELECT MAX(e.postedAt) FROM LedgerEntry e WHERE e.cardId = c.id " +
+           "AND e.txid >= (SELECT s.materializedTxid FROM LedgerState s WHERE s.id = 1)) AS unappliedPostedAt " +
+           "FROM Card c WHERE c.owner.username = :username ORDER BY c.id")
+    List<CardVersion> findVersionsByOwnerUsername(@Param("username") String username);
+
+    interface CardVersion {
+        Long getId();
+
+        String getOwnerUsername();
+
+        LocalDateTime getUpdatedAt();
+
+        Long getMaterializedTxid();
+
+        LocalDateTime getMaterializedPostedAt();
+
+        LocalDateTime getUnappliedPostedAt();
+    }
+
+    interface CardState {
+        Long getId();
+
+        Card.CardStatus getStatus();
+
+        BigDecimal getBalance();
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // Materialized balance plus the postings above the watermark. One statement, so both come from
+    // the same snapshot; the materializer moves balances and watermark in one commit. The watermark
+    // is null where the schema was not built by Liquibase (H2), which has no ledger_state row
+    @Query("SELECT c.id AS cardId, " +
+           "(SELECT s.materializedTxid FROM LedgerState s WHERE s.id = 1) AS materializedTxid, " +
+           "COALESCE((SELECT b.balance FROM LedgerBalance b WHERE b.cardId = c.id), 0) + " +
+           "COALESCE((SELECT SUM(e.amount) FROM LedgerEntry e WHERE e.cardId = c.id " +
+           "AND e.txid >= (SELECT s.materializedTxid FROM LedgerState s WHERE s.id = 1)), 0) AS balance, " +
+           "(SELECT b.lastPostedAt FROM LedgerBalance b WHERE b.cardId = c.id) AS materializedPostedAt, " +
+           "(SELECT MAX(e.postedAt) FROM LedgerEntry e WHERE e.cardId = c.id " +
+           "AND e.txid >= (SELECT s.materializedTxid FROM LedgerState s WHERE s.id = 1)) AS unappliedPostedAt " +
+           "FROM Card c WHERE c.id IN :cardIds")
+    List<CardBalance> findCardBalances(@Param("cardIds") Collection<Long> cardIds);
+
+    interface CardBalance {
+        Long getCardId();
+
+        Long getMaterializedTxid();
+
+        BigDecimal getBalance();
+
+        LocalDateTime getMaterializedPostedAt();
+
+        LocalDateTime getUnappliedPostedAt();
+    }
+}
@@ -2,12 +2,20 @@ package com.example.bankrest.repository;
 
 import com.example.bankrest.entity.Transaction;
 import com.example.bankrest.entity.Card;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,14 +28,58 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t WHERE t.fromCard.id = :cardId OR t.toCard.id = :cardId ORDER BY t.transactionDate DESC")
     List<Transaction> findByCardId(@Param("cardId") Long cardId);
 
-    @Query("SELECT t FROM Transaction t WHERE (t.fromCard.owner.id = :userId OR t.toCard.owner.id = :userId) ORDER BY t.transactionDate DESC")
+    // Any transfer from or to the card, for the check before deleting it
+    boolean existsByFromCardIdOrToCardId(Long fromCardId, Long toCardId);
+
+    // Uses the denormalized owner columns: (from_owner_id, transaction_date) and
+    // (to_owner_id, transaction_date) are indexed, so cards is never touched
+    @Query("SELECT t FROM Transaction t WHERE t.fromOwnerId = :userId OR t.toOwnerId = :userId ORDER BY t.transactionDate DESC")
     List<Transaction> findByUserId(@Param("userId") Long userId);
 
     List<Transaction> findByStatus(Transaction.TransactionStatus status);
 
+    // Queued transfers for the dispatcher, round-robin over source cards: the oldest transfer of
+    // every card, then the second oldest of every card, and so on, each round in id order. A card
+    // with a long queue so cannot fill the page and hold back the other cards behind it.
+    // PENDING rows are covered by the partial index idx_transactions_pending, so the scan never
+    // reads settled rows
+    @Query("SELECT q.id AS id, q.fromCardId AS fromCardId, q.toCardId AS toCardId FROM (" +
+           "SELECT t.id AS id, t.fromCard.id AS fromCardId, t.toCard.id AS toCardId, " +
+           "row_number() OVER (PARTITION BY t.fromCard.id ORDER BY t.id) AS cardRank " +
+           "FROM Transaction t WHERE t.status = :status) q " +
+           "ORDER BY q.cardRank, q.id")
+    List<QueuedTransfer> findQueued(@Param("status") Transaction.TransactionStatus status, Pageable pageable);
+
+    // Lock timeout -2 is SKIP LOCKED: rows a worker on another node holds are left to it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT t FROM Transaction t WHERE t.id IN :ids AND t.status = :status ORDER BY t.id")
+    List<Transaction> lockByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                          @Param("status") Transaction.TransactionStatus status);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :status, t.failureReason = :failureReason WHERE t.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") Transaction.TransactionStatus status,
+                     @Param("failureReason") String failureReason);
+
+    // Date-range queries compare transaction_date directly against bound timestamps
+    // (no functions or casts on the column), so Postgres prunes the monthly partitions
+
     @Query("SELECT t FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
     List<Transaction> findByTransactionDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     @Query("SELECT t FROM Transaction t WHERE (t.fromCard.id = :cardId OR t.toCard.id = :cardId) AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
     List<Transaction> findByCardIdAndDateRange(@Param("cardId") Long cardId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT t FROM Transaction t WHERE (t.fromOwnerId = :userId OR t.toOwnerId = :userId) AND t.transactionDate >= :startDate AND t.transactionDate < :endDate ORDER BY t.transactionDate DESC")
+    List<Transaction> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    interface QueuedTransfer {
+        Long getId();
+
+        Long getFromCardId();
+
+        Long getToCardId();
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.entity.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    // Natural-id lookup, answered from the second-level cache when it is enabled
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,26 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Transactional so the unwrapped Session outlives the call when no transaction is active. Not
+// read-only: authentication looks users up here, and a read-only transaction would be routed to
+// the replica, where a new or changed user may not have arrived yet
+@Transactional
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.exception.CardBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Periodically folds the shards of every sharded card into its balance, one card per short
+ * transaction, and refreshes the set of sharded cards this node leaves out of {@link CardLocks}.
+ * Each fold holds the card's lock like a transfer would; a card that stays busy is folded
+ * on the next run.
+ */
+@Service
+@ConditionalOnProperty(name = "cards.balance-shards.enabled", havingValue = "true")
+public class CardBalanceShardFolder {
+
+    private static final Logger log = LoggerFactory.getLogger(CardBalanceShardFolder.class);
+
+    @Autowired
+    private CardBalanceShardService balanceShardService;
+
+    @Autowired
+    private CardLocks cardLocks;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        balanceShardService.refreshShardedCards();
+    }
+
+    @Scheduled(fixedDelayString = "${cards.balance-shards.fold-interval:5s}")
+    public void foldShards() {
+        for (Long cardId : balanceShardService.refreshShardedCards()) {
+            try (CardLocks.Held held = cardLocks.lock(List.of(cardId))) {
+                balanceShardService.fold(cardId);
+            } catch (CardBusyException e) {
+                log.debug("Card {} is busy, folding its balance shards on the next run", cardId);
+            } catch (RuntimeException e) {
+                log.warn("Could not fold the balance shards of card {}", cardId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.CardBalanceShard;
+import com.example.bankrest.repository.CardBalanceShardRepository;
+import com.example.bankrest.repository.CardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sharded balances for hot destination cards.
+ * <p>
+ * A card with {@code balance_shards = N > 0} takes credits on one of N rows in
+ * {@code card_balance_shards}, picked by the source card id, instead of on its {@code cards} row,
+ * so concurrent transfers into it update different rows. Its balance is {@code cards.balance}
+ * plus the sum of its shards; card reads get it from the ledger ({@link LedgerService}).
+ * <p>
+ * A fold moves the shards into {@code cards.balance} and rolls their credits into the daily
+ * balance snapshot in one step. A sharded card is folded before it is debited, and every
+ * {@code cards.balance-shards.fold-interval} by {@link CardBalanceShardFolder}, so statements
+ * lag its credits by at most one interval. Lock order is the card row, then its shards; a transfer
+ * into a sharded card inserts its {@code transactions} row first, which locks the card row for
+ * the foreign key, and only then credits a shard.
+ */
+@Service
+@Transactional
+public class CardBalanceShardService {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardBalanceShardRepository shardRepository;
+
+    @Autowired
+    private CardBalanceSnapshotService balanceSnapshotService;
+
+    @Value("${cards.balance-shards.max:64}")
+    private int maxShards;
+
+    // Sharded cards as last seen by this node; refreshed by CardBalanceShardFolder.
+    // Only decides which cards transfers leave out of CardLocks
+    private final Set<Long> shardedCards = ConcurrentHashMap.newKeySet();
+
+    public boolean isSharded(Long cardId) {
+        return cardId != null && shardedCards.contains(cardId);
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Long> refreshShardedCards() {
+        Set<Long> current = new HashSet<>(cardRepository.findShardedIds());
+        shardedCards.retainAll(current);
+        shardedCards.addAll(current);
+        return current;
+    }
+
+    // Returns false when the shard is gone after a concurrent reshard; the caller then credits cards.balance
+    public boolean credit(Card card, Long fromCardId, BigDecimal amount, LocalDateTime now) {
+        int shard = shardFor(fromCardId, card.getBalanceShards());
+        return shardRepository.credit(card.getId(), shard, amount, now) == 1;
+    }
+
+    /**
+     * Moves the card's shards into {@code cards.balance} and returns its balance afterwards,
+     * which is then its whole balance. Joins the caller's transaction.
+     */
+    public BigDecimal fold(Card card) {
+        cardRepository.lockByIdIn(List.of(card.getId()));
+        return fold(card, shardRepository.lockByCardId(card.getId()));
+    }
+
+    // For CardBalanceShardFolder, in a transaction of its own
+    public void fold(Long cardId) {
+        cardRepository.findById(cardId).ifPresent(this::fold);
+    }
+
+    private BigDecimal fold(Card card, List<CardBalanceShard> shards) {
+        BigDecimal folded = BigDecimal.ZERO;
+        int credits = 0;
+        for (CardBalanceShard shard : shards) {
+            folded = folded.add(shard.getBalance());
+            credits += shard.getCreditCount();
+            // Drained through the loaded rows, so they stay current for the rest of the transaction
+            shard.setBalance(BigDecimal.ZERO);
+            shard.setCreditCount(0);
+        }
+        if (credits == 0) {
+            return card.getBalance();
+        }
+
+        cardRepository.credit(card.getId(), folded, LocalDateTime.now());
+        BigDecimal balance = cardRepository.findBalanceById(card.getId());
+        balanceSnapshotService.recordCredits(card.getId(), balance.subtract(folded), folded, credits);
+        return balance;
+    }
+
+    /**
+     * Folds the card and leaves it with {@code shards} empty shards; 0 turns sharding off.
+     * Credits that picked a shard that no longer exists go to
+     * {@code cards.balance} instead.
+     */
+    public void reshard(Card card, int shards) {
+        if (shards < 0 || shards > maxShards) {
+            throw new IllegalArgumentException("Balance shard count must be between 0 and " + maxShards);
+        }
+
+        cardRepository.lockByIdIn(List.of(card.getId()));
+        List<CardBalanceShard> current = shardRepository.lockByCardId(card.getId());
+        fold(card, current);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (CardBalanceShard shard : current) {
+            if (shard.getShard() >= shards) {
+                shardRepository.delete(shard);
+            }
+        }
+        for (int shard = current.size(); shard < shards; shard++) {
+            shardRepository.save(new CardBalanceShard(card.getId(), shard, BigDecimal.ZERO, 0, now));
+        }
+        cardRepository.updateBalanceShards(card.getId(), shards, now);
+
+        if (shards > 0) {
+            shardedCards.add(card.getId());
+        } else {
+            shardedCards.remove(card.getId());
+        }
+    }
+
+    // By source card: transfers from one card are serialized anyway, different cards spread out
+    static int shardFor(Long fromCardId, int shards) {
+        return Math.floorMod(Long.hashCode(fromCardId), shards);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.dto.CardStatementResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.CardDailyBalance;
+import com.example.bankrest.repository.CardBalanceShardRepository;
+import com.example.bankrest.repository.CardDailyBalanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Maintains the {@code card_daily_balances} rollup and serves statements from it.
+ * Each row holds one day's opening/closing balance and movements, so any
+ * day-aligned period is answered from two snapshot lookups and one bounded sum.
+ */
+@Service
+@Transactional
+public class CardBalanceSnapshotService {
+
+    @Autowired
+    private CardDailyBalanceRepository dailyBalanceRepository;
+
+    @Autowired
+    private CardBalanceShardRepository shardRepository;
+
+    // Called inside the transfer transaction, so the rollup commits with the balances
+    public void recordDebit(Long cardId, BigDecimal balanceBefore, BigDecimal amount) {
+        dailyBalanceRepository.applyMovement(cardId, LocalDate.now(), balanceBefore, BigDecimal.ZERO, amount, 1);
+    }
+
+    public void recordCredit(Long cardId, BigDecimal balanceBefore, BigDecimal amount) {
+        dailyBalanceRepository.applyMovement(cardId, LocalDate.now(), balanceBefore, amount, BigDecimal.ZERO, 1);
+    }
+
+    // Credits collected on a card's balance shards, rolled up when they are folded into its balance
+    public void recordCredits(Long cardId, BigDecimal balanceBefore, BigDecimal amount, int count) {
+        dailyBalanceRepository.applyMovement(cardId, LocalDate.now(), balanceBefore, amount, BigDecimal.ZERO, count);
+    }
+
+    @Transactional(readOnly = true)
+    public CardStatementResponse getMonthlyStatement(Card card, YearMonth month) {
+        LocalDate periodStart = month.atDay(1);
+        LocalDate periodEnd = month.atEndOfMonth();
+
+        BigDecimal openingBalance = balanceAtEndOf(card, periodStart.minusDays(1));
+        BigDecimal closingBalance = balanceAtEndOf(card, periodEnd);
+        CardDailyBalanceRepository.MovementTotals totals =
+                dailyBalanceRepository.sumMovements(card.getId(), periodStart, periodEnd);
+
+        return new CardStatementResponse(
+                card.getId(),
+                periodStart,
+                periodEnd,
+                openingBalance,
+                closingBalance,
+                totals.getTotalCredits(),
+                totals.getTotalDebits(),
+                totals.getTransactionCount()
+        );
+    }
+
+    private BigDecimal balanceAtEndOf(Card card, LocalDate date) {
+        // Before the card was opened
+        if (card.getCreatedAt() != null && date.isBefore(card.getCreatedAt().toLocalDate())) {
+            return BigDecimal.ZERO;
+        }
+        // Nothing has moved after today, but today's snapshot lacks the credits still held in shards
+        if (!date.isBefore(LocalDate.now())) {
+            return currentBalance(card);
+        }
+        // The last snapshot on or before the day closes at the balance we want
+        return dailyBalanceRepository.findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(card.getId(), date)
+                .map(CardDailyBalance::getClosingBalance)
+                // Otherwise nothing moved until the next snapshot opened
+                .or(() -> dailyBalanceRepository.findFirstByCardIdAndBalanceDateGreaterThanOrderByBalanceDateAsc(card.getId(), date)
+                        .map(CardDailyBalance::getOpeningBalance))
+                // No snapshots at all: nothing moved before today, when unfolded shard credits arrived
+                .orElse(card.getBalance());
+    }
+
+    private BigDecimal currentBalance(Card card) {
+        if (card.getBalanceShards() == 0) {
+            return card.getBalance();
+        }
+        return card.getBalance().add(shardRepository.sumBalanceByCardId(card.getId()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.event.CardChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves ACTIVE cards past their expiry date to EXPIRED in chunked, set-based updates
+ * driven by the partial index {@code idx_cards_active_expiry}. Postgres only.
+ * <p>
+ * Each chunk is its own short transaction. It first takes a transaction-level advisory
+ * lock, so only one node sweeps at a time, and skips rows locked by in-flight transfers
+ * instead of waiting for them; those cards are picked up by the next run.
+ */
+@Service
+@ConditionalOnProperty(name = "cards.expiry.enabled", havingValue = "true")
+public class CardExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(CardExpirySweeper.class);
+
+    static final String LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('cards.expiry'))";
+
+    static final String EXPIRE_CHUNK_SQL =
+            "WITH expired AS (" +
+            "    SELECT id FROM cards" +
+            "    WHERE status = 'ACTIVE' AND expiry_date < ?" +
+            "    ORDER BY expiry_date" +
+            "    LIMIT ?" +
+            "    FOR UPDATE SKIP LOCKED" +
+            ") " +
+            "UPDATE cards c SET status = 'EXPIRED', updated_at = CURRENT_TIMESTAMP " +
+            "FROM expired e, users u " +
+            "WHERE c.id = e.id AND u.id = c.owner_id " +
+            "RETURNING c.id, u.username";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${cards.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        expireCards();
+    }
+
+    @Scheduled(cron = "${cards.expiry.cron:0 5 0 * * *}")
+    public void expireCards() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        int expired;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> expireChunk(today));
+            if (chunk == null) {
+                log.debug("Card expiry sweep skipped: another node holds the lock");
+                break;
+            }
+            expired = chunk;
+            total += expired;
+        } while (expired == chunkSize);
+
+        if (total > 0) {
+            log.info("Expired {} cards with expiry date before {}", total, today);
+        }
+    }
+
+    // Returns null when another node is sweeping
+    Integer expireChunk(LocalDate today) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_SQL, Boolean.class))) {
+            return null;
+        }
+
+        List<CardChangedEvent> events = jdbcTemplate.query(EXPIRE_CHUNK_SQL,
+                (rs, rowNum) -> new CardChangedEvent(rs.getLong(1), rs.getString(2), CardChangedEvent.ChangeType.EXPIRED),
+                Date.valueOf(today), chunkSize);
+
+        // Evicted from the read caches after this chunk commits
+        events.forEach(eventPublisher::publishEvent);
+        return events.size();
+    }
+}
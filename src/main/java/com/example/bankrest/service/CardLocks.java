@@ -0,0 +1,136 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.exception.CardBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes work on the same card inside this JVM, before it reaches the database.
+ * <p>
+ * Transfers take these locks before their transaction starts, so callers queued behind
+ * a hot card wait here without a pooled connection, and only the one holding the lock
+ * waits on the card's row lock in Postgres. Cards map onto a fixed set of fair locks
+ * ({@code cards.lock.stripes}); unrelated cards that share a stripe are serialized too,
+ * which is harmless at a stripe count well above the pool size. The stripes of one call
+ * are taken in index order, so two calls over the same cards cannot deadlock.
+ * <p>
+ * A caller that has not got its locks after {@code cards.lock.timeout} gets a
+ * {@link CardBusyException} instead of queueing without bound.
+ */
+@Component
+public class CardLocks {
+
+    private final ReentrantLock[] stripes;
+    private final Duration timeout;
+    private final Timer acquired;
+    private final Timer timedOut;
+
+    public CardLocks(MeterRegistry meterRegistry,
+                     @Value("${cards.lock.stripes:1024}") int stripeCount,
+                     @Value("${cards.lock.timeout:5s}") Duration timeout) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.timeout = timeout;
+
+        Gauge.builder("cards.lock.queue.depth", this, CardLocks::queuedThreads)
+                .description("Threads waiting for a card lock")
+                .register(meterRegistry);
+        Gauge.builder("cards.lock.queue.depth.max", this, CardLocks::longestQueue)
+                .description("Threads waiting for the most contended card lock")
+                .register(meterRegistry);
+        this.acquired = Timer.builder("cards.lock.wait")
+                .description("Time spent waiting for card locks")
+                .tag("outcome", "acquired")
+                .register(meterRegistry);
+        this.timedOut = Timer.builder("cards.lock.wait")
+                .description("Time spent waiting for card locks")
+                .tag("outcome", "timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until this thread holds the locks of all given cards; release them by
+     * closing the result. Null ids are ignored.
+     */
+    public Held lock(Collection<Long> cardIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long cardId : cardIds) {
+            if (cardId != null) {
+                indexes.add(stripeIndex(cardId));
+            }
+        }
+
+        Deque<ReentrantLock> held = new ArrayDeque<>(indexes.size());
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw busy(held, start, null);
+                }
+                held.push(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy(held, start, e);
+        }
+        acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Held(held);
+    }
+
+    private CardBusyException busy(Deque<ReentrantLock> held, long start, Throwable cause) {
+        held.forEach(ReentrantLock::unlock);
+        timedOut.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new CardBusyException("Card is busy, please retry the transfer", cause);
+    }
+
+    // Ids are sequential, so cards created close together never share a stripe
+    int stripeIndex(Long cardId) {
+        return (int) Math.floorMod(cardId, (long) stripes.length);
+    }
+
+    int queuedThreads() {
+        int queued = 0;
+        for (ReentrantLock stripe : stripes) {
+            queued += stripe.getQueueLength();
+        }
+        return queued;
+    }
+
+    int longestQueue() {
+        int longest = 0;
+        for (ReentrantLock stripe : stripes) {
+            longest = Math.max(longest, stripe.getQueueLength());
+        }
+        return longest;
+    }
+
+    public static final class Held implements AutoCloseable {
+
+        private final Deque<ReentrantLock> locks;
+
+        private Held(Deque<ReentrantLock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            locks.forEach(ReentrantLock::unlock);
+            locks.clear();
+        }
+    }
+}
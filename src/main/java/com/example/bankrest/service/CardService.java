@@ -1,14 +1,26 @@
 package com.example.bankrest.service;
 
+import com.example.bankrest.cache.CardResponseCache;
+import com.example.bankrest.config.ReplicaHealthMonitor;
 import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.dto.CardStatementResponse;
 import com.example.bankrest.dto.CreateCardRequest;
+import com.example.bankrest.dto.TransferStatusResponse;
 import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.Transaction;
 import com.example.bankrest.entity.User;
+import com.example.bankrest.event.CardChangedEvent;
 import com.example.bankrest.exception.*;
+import com.example.bankrest.metrics.TransferMetrics;
+import com.example.bankrest.outbox.OutboxWriter;
 import com.example.bankrest.repository.CardRepository;
+import com.example.bankrest.repository.TransactionRepository;
 import com.example.bankrest.repository.UserRepository;
 import com.example.bankrest.util.CardNumberEncryption;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,11 +31,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Observed(name = "cards.service")
 public class CardService {
 
     @Autowired
@@ -32,9 +54,37 @@ public class CardService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     @Autowired
     private CardNumberEncryption cardEncryption;
 
+    @Autowired
+    private CardBalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private CardBalanceShardService balanceShardService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private CardResponseCache cardResponseCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransferMetrics transferMetrics;
+
+    // Only present when read-only transactions are routed to a replica
+    @Autowired(required = false)
+    private ReplicaHealthMonitor replicaHealthMonitor;
+
     @PreAuthorize("hasRole('ADMIN')")
     public CardResponse createCard(CreateCardRequest request) {
         User owner = userRepository.findById(request.getOwnerId())
@@ -55,77 +105,289 @@ public class CardService {
         card.setBalance(request.getInitialBalance() != null ? request.getInitialBalance() : BigDecimal.ZERO);
 
         Card savedCard = cardRepository.save(card);
-        return convertToResponse(savedCard);
+        ledgerService.postOpeningBalance(savedCard);
+        publishCardChanged(savedCard, CardChangedEvent.ChangeType.CREATED);
+        return withLedgerBalance(convertToResponse(savedCard));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     public CardResponse blockCard(Long cardId) {
         Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
+                .orElseThrow(() -> new CardNotFoundException(cardId));
 
-        card.setStatus(Card.CardStatus.BLOCKED);
-        Card savedCard = cardRepository.save(card);
-        return convertToResponse(savedCard);
+        return changeStatus(card, Card.CardStatus.BLOCKED, CardChangedEvent.ChangeType.BLOCKED);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     public CardResponse activateCard(Long cardId) {
         Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
+                .orElseThrow(() -> new CardNotFoundException(cardId));
 
         // Check if the card has expired
         if (card.getExpiryDate().isBefore(LocalDate.now())) {
             throw new CardNotActiveException("Cannot activate expired card");
         }
 
-        card.setStatus(Card.CardStatus.ACTIVE);
-        Card savedCard = cardRepository.save(card);
-        return convertToResponse(savedCard);
+        return changeStatus(card, Card.CardStatus.ACTIVE, CardChangedEvent.ChangeType.ACTIVATED);
+    }
+
+    private CardResponse changeStatus(Card card, Card.CardStatus status, CardChangedEvent.ChangeType changeType) {
+        // The loaded card stays untouched, so the flush has nothing to dirty-check
+        cardRepository.updateStatus(card.getId(), status, LocalDateTime.now());
+        publishCardChanged(card, changeType);
+
+        CardResponse response = withLedgerBalance(convertToResponse(card));
+        response.setStatus(status);
+        return response;
+    }
+
+    // Sets how many balance shards take the card's credits; 0 turns sharding off
+    @PreAuthorize("hasRole('ADMIN')")
+    public CardResponse setBalanceShards(Long cardId, int shards) {
+        Card card = findCard(cardId);
+        balanceShardService.reshard(card, shards);
+        return withLedgerBalance(convertToResponse(card));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteCard(Long cardId) {
         Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
+                .orElseThrow(() -> new CardNotFoundException(cardId));
 
         // Check that the card balance is zero
-        if (card.getBalance().compareTo(BigDecimal.ZERO) != 0) {
+        if (spendableBalance(card).compareTo(BigDecimal.ZERO) != 0) {
             throw new IllegalArgumentException("Cannot delete card with non-zero balance");
         }
 
-        cardRepository.delete(card);
+        // Card removal cascades to its transfers, which must not take the history of the other card with them
+        if (transactionRepository.existsByFromCardIdOrToCardId(cardId, cardId)) {
+            throw new CardHasTransactionsException(cardId);
+        }
+
+        // A transfer committed since the check is caught by its foreign key, flushed before the event
+        try {
+            cardRepository.delete(card);
+            cardRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new CardHasTransactionsException(cardId);
+        }
+        publishCardChanged(card, CardChangedEvent.ChangeType.DELETED);
     }
 
     @PreAuthorize("hasRole('USER')")
+    @Transactional(readOnly = true)
     public List<CardResponse> getCardsByUser() {
         String currentUsername = getCurrentUsername();
+
+        List<CardResponse> cached = cardResponseCache.getOwnerCards(currentUsername);
+        if (cached != null) {
+            return cached;
+        }
+
+        long cacheGeneration = cardResponseCache.generation();
+        boolean cacheable = readsFromPrimary();
         User currentUser = userRepository.findByUsername(currentUsername)
                 .orElseThrow(() -> new UserNotFoundException("Current user not found"));
 
-        List<Card> userCards = cardRepository.findByOwner(currentUser);
-        return userCards.stream()
+        List<Card> userCards = cardRepository.findByOwnerOrderById(currentUser);
+        List<CardResponse> cards = withLedgerBalances(userCards.stream()
                 .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        if (cacheable) {
+            cardResponseCache.putOwnerCards(currentUsername, cards, cacheGeneration);
+        }
+        return cards;
     }
 
+    /**
+     * The {@code updatedAt} of each of the current user's cards, in the order of
+     * {@link #getCardsByUser()}, as the cards' ETag is derived from. Read from the cache or from a
+     * projection, so answering a revalidation decrypts no card numbers.
+     */
     @PreAuthorize("hasRole('USER')")
-    public void transferBetweenOwnCards(Long fromCardId, Long toCardId, BigDecimal amount) {
+    @Transactional(readOnly = true)
+    public Map<Long, LocalDateTime> getCardVersionsByUser() {
         String currentUsername = getCurrentUsername();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
 
-        Card fromCard = cardRepository.findById(fromCardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + fromCardId));
+        Map<Long, LocalDateTime> versions = new LinkedHashMap<>();
+        List<CardResponse> cached = cardResponseCache.getOwnerCards(currentUsername);
+        if (cached != null) {
+            cached.forEach(card -> versions.put(card.getId(), card.getUpdatedAt()));
+            return versions;
+        }
+
+        cardRepository.findVersionsByOwnerUsername(currentUsername)
+                .forEach(version -> versions.put(version.getId(), ledgerUpdatedAt(version)));
+        return versions;
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    public void transferBetweenOwnCards(Long fromCardId, Long toCardId, BigDecimal amount) {
+        try {
+            transfer(fromCardId, toCardId, amount);
+            transferMetrics.recordSuccess();
+        } catch (RuntimeException e) {
+            transferMetrics.recordFailure(e);
+            throw e;
+        }
+    }
+
+    private void transfer(Long fromCardId, Long toCardId, BigDecimal amount) {
+        User currentUser = getCurrentUser();
+        Card fromCard = findCard(fromCardId);
+        Card toCard = findCard(toCardId);
+
+        checkOwnCards(fromCard, toCard, currentUser);
+        BigDecimal fromBalance = spendableBalance(fromCard);
+        checkTransferable(fromCard, toCard, fromBalance, amount);
+
+        // Record the transfer with the owners denormalized for history queries. Inserted before
+        // the balances change: its foreign keys lock both card rows (FOR KEY SHARE), and a sharded
+        // destination must be locked before its shard, the order a fold takes them in
+        Transaction transaction = new Transaction();
+        transaction.setFromCard(fromCard);
+        transaction.setToCard(toCard);
+        transaction.setFromOwnerId(currentUser.getId());
+        transaction.setToOwnerId(currentUser.getId());
+        transaction.setAmount(amount);
+        transactionRepository.save(transaction);
+
+        // Balances read above are unlocked, so applyTransfer reads them again under the row locks
+        applyTransfer(fromCard, toCard, null, null, amount, LocalDateTime.now());
+        ledgerService.postTransfers(List.of(transaction));
+        outboxWriter.recordTransfers(List.of(transaction));
+    }
+
+    // Queues the transfer as PENDING for PendingTransferProcessor. Only ownership and the
+    // amount are checked here; status, expiry and funds are checked when the transfer runs
+    @PreAuthorize("hasRole('USER')")
+    public TransferStatusResponse submitTransfer(Long fromCardId, Long toCardId, BigDecimal amount, String description) {
+        try {
+            User currentUser = getCurrentUser();
+            Card fromCard = findCard(fromCardId);
+            Card toCard = findCard(toCardId);
+
+            checkOwnCards(fromCard, toCard, currentUser);
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Transfer amount must be positive");
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setFromCard(fromCard);
+            transaction.setToCard(toCard);
+            transaction.setFromOwnerId(currentUser.getId());
+            transaction.setToOwnerId(currentUser.getId());
+            transaction.setAmount(amount);
+            transaction.setDescription(description);
+            transaction.setStatus(Transaction.TransactionStatus.PENDING);
+            return convertToStatusResponse(transactionRepository.save(transaction));
+        } catch (RuntimeException e) {
+            transferMetrics.recordFailure(e);
+            throw e;
+        }
+    }
+
+    // Not read-only on purpose: a client polling right after submitting must not hit a lagging replica
+    @PreAuthorize("hasRole('USER')")
+    public TransferStatusResponse getTransferStatus(Long transactionId) {
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new TransferNotFoundException(transactionId));
+
+        if (!transaction.getFromOwnerId().equals(getCurrentUser().getId())) {
+            throw new UnauthorizedCardAccessException("Access denied: You can only view your own transfers");
+        }
+        return convertToStatusResponse(transaction);
+    }
+
+    /**
+     * Runs queued transfers in one transaction and moves each to COMPLETED or FAILED.
+     * Rows already claimed by another worker are skipped. All cards involved are locked
+     * once, in id order, and balances are carried forward in memory between transfers, so
+     * a batch costs one lock round per card instead of one per transfer. A transfer that
+     * fails its checks is marked FAILED with the reason and does not undo the others.
+     * Sharded destinations are not locked: their credits only touch one of their shards.
+     */
+    public void executePendingTransfers(Collection<Long> transactionIds) {
+        List<Transaction> pending = transactionRepository.lockByIdInAndStatus(
+                transactionIds, Transaction.TransactionStatus.PENDING);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Set<Long> sourceIds = new HashSet<>();
+        Set<Long> cardIds = new HashSet<>();
+        Set<Long> shardedIds = new HashSet<>();
+        pending.forEach(transaction -> {
+            sourceIds.add(transaction.getFromCard().getId());
+            cardIds.add(transaction.getFromCard().getId());
+            Long toCardId = transaction.getToCard().getId();
+            (balanceShardService.isSharded(toCardId) ? shardedIds : cardIds).add(toCardId);
+        });
+        shardedIds.removeAll(cardIds);
+        Map<Long, Card> cards = new HashMap<>();
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (Card card : cardRepository.lockByIdIn(cardIds)) {
+            cards.put(card.getId(), card);
+            // Balances carried forward are cards.balance; a sharded source is folded into it first
+            balances.put(card.getId(), sourceIds.contains(card.getId()) ? spendableBalance(card) : card.getBalance());
+        }
+        if (!shardedIds.isEmpty()) {
+            for (Card card : cardRepository.findAllById(shardedIds)) {
+                cards.put(card.getId(), card);
+                balances.put(card.getId(), card.getBalance());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> completed = new ArrayList<>(pending.size());
+        for (Transaction transaction : pending) {
+            Card fromCard = cards.get(transaction.getFromCard().getId());
+            Card toCard = cards.get(transaction.getToCard().getId());
+            BigDecimal amount = transaction.getAmount();
+            try {
+                checkTransferable(fromCard, toCard, balances.get(fromCard.getId()), amount);
+                // Sharded destinations were read without a lock, so their balance is not passed on
+                boolean creditedToShard = applyTransfer(fromCard, toCard, balances.get(fromCard.getId()),
+                        cardIds.contains(toCard.getId()) ? balances.get(toCard.getId()) : null, amount, now);
+                balances.merge(fromCard.getId(), amount.negate(), BigDecimal::add);
+                if (!creditedToShard) {
+                    balances.merge(toCard.getId(), amount, BigDecimal::add);
+                }
+
+                transactionRepository.updateStatus(transaction.getId(), Transaction.TransactionStatus.COMPLETED, null);
+                completed.add(transaction);
+                transferMetrics.recordSuccess();
+            } catch (CardNotActiveException | InsufficientFundsException | IllegalArgumentException e) {
+                transactionRepository.updateStatus(transaction.getId(), Transaction.TransactionStatus.FAILED, e.getMessage());
+                transferMetrics.recordFailure(e);
+            }
+        }
+        // Postings and outbox rows of the whole batch go out in one JDBC batch each
+        ledgerService.postTransfers(completed);
+        outboxWriter.recordTransfers(completed);
+    }
+
+    // For a queued transfer that could not be run at all, e.g. after repeated database errors
+    public void failPendingTransfer(Long transactionId, String reason) {
+        transactionRepository.lockByIdInAndStatus(List.of(transactionId), Transaction.TransactionStatus.PENDING)
+                .forEach(transaction -> transactionRepository.updateStatus(
+                        transaction.getId(), Transaction.TransactionStatus.FAILED, reason));
+    }
 
-        Card toCard = cardRepository.findById(toCardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + toCardId));
+    private Card findCard(Long cardId) {
+        return cardRepository.findById(cardId)
+                .orElseThrow(() -> new CardNotFoundException(cardId));
+    }
 
+    private void checkOwnCards(Card fromCard, Card toCard, User currentUser) {
         // Check that both cards belong to the current user
         if (!fromCard.getOwner().getId().equals(currentUser.getId()) ||
             !toCard.getOwner().getId().equals(currentUser.getId())) {
             throw new UnauthorizedCardAccessException("You can only transfer between your own cards");
         }
+    }
 
+    private void checkTransferable(Card fromCard, Card toCard, BigDecimal fromBalance, BigDecimal amount) {
         // Check the status of the cards
         if (fromCard.getStatus() != Card.CardStatus.ACTIVE) {
             throw new CardNotActiveException("Source card is not active");
@@ -135,8 +397,18 @@ public class CardService {
             throw new CardNotActiveException("Destination card is not active");
         }
 
+        // Expired cards stay ACTIVE until the next CardExpirySweeper run
+        LocalDate today = LocalDate.now();
+        if (fromCard.getExpiryDate().isBefore(today)) {
+            throw new CardNotActiveException("Source card has expired");
+        }
+
+        if (toCard.getExpiryDate().isBefore(today)) {
+            throw new CardNotActiveException("Destination card has expired");
+        }
+
         // Check if there are sufficient funds
-        if (fromCard.getBalance().compareTo(amount) < 0) {
+        if (fromBalance.compareTo(amount) < 0) {
             throw new InsufficientFundsException();
         }
 
@@ -144,24 +416,61 @@ public class CardService {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Transfer amount must be positive");
         }
+    }
+
+    /**
+     * Moves the amount and rolls it into today's balance snapshots. {@code fromBalance} and
+     * {@code toBalance} are the balances before the transfer if the caller read them under the
+     * cards' row locks, or null. A null balance is read back after the update: on a card's first
+     * movement of the day it is stored as the day's opening balance, so a stale one stays wrong.
+     * Returns true when the credit went to one of the destination's balance shards.
+     */
+    private boolean applyTransfer(Card fromCard, Card toCard, BigDecimal fromBalance, BigDecimal toBalance,
+                                  BigDecimal amount, LocalDateTime now) {
+        // Perform the transfer with targeted updates; the guarded debit also
+        // catches a concurrent transfer that spent the balance checked above
+        if (cardRepository.debit(fromCard.getId(), amount, now) == 0) {
+            throw new InsufficientFundsException();
+        }
+        if (fromBalance == null) {
+            fromBalance = cardRepository.findBalanceById(fromCard.getId()).add(amount);
+        }
+        boolean creditedToShard = toCard.getBalanceShards() > 0
+                && balanceShardService.credit(toCard, fromCard.getId(), amount, now);
+        if (!creditedToShard) {
+            cardRepository.credit(toCard.getId(), amount, now);
+            if (toBalance == null) {
+                toBalance = cardRepository.findBalanceById(toCard.getId()).subtract(amount);
+            }
+        }
+
+        // Roll the movement into today's balance snapshots; shard credits are rolled up when folded
+        balanceSnapshotService.recordDebit(fromCard.getId(), fromBalance, amount);
+        if (!creditedToShard) {
+            balanceSnapshotService.recordCredit(toCard.getId(), toBalance, amount);
+        }
 
-        // Perform the transfer
-        fromCard.setBalance(fromCard.getBalance().subtract(amount));
-        toCard.setBalance(toCard.getBalance().add(amount));
+        publishCardChanged(fromCard, CardChangedEvent.ChangeType.BALANCE_CHANGED);
+        publishCardChanged(toCard, CardChangedEvent.ChangeType.BALANCE_CHANGED);
+        return creditedToShard;
+    }
 
-        cardRepository.save(fromCard);
-        cardRepository.save(toCard);
+    // A sharded card is folded first, so its whole balance is in cards.balance
+    private BigDecimal spendableBalance(Card card) {
+        return card.getBalanceShards() > 0 ? balanceShardService.fold(card) : card.getBalance();
     }
 
+    @Transactional(readOnly = true)
     public List<CardResponse> getAllCards() {
         // For admins only - get all cards in the system
         List<Card> allCards = cardRepository.findAll();
-        return allCards.stream()
+        return withLedgerBalances(allCards.stream()
                 .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<CardResponse> getAllCardsWithPagination(Pageable pageable, String status, Long ownerId) {
         Page<Card> cards;
 
@@ -177,13 +486,64 @@ public class CardService {
             cards = cardRepository.findAll(pageable);
         }
 
-        return cards.map(this::convertToResponse);
+        Page<CardResponse> responses = cards.map(this::convertToResponse);
+        withLedgerBalances(responses.getContent());
+        return responses;
     }
 
+    @Transactional(readOnly = true)
     public CardResponse getCardById(Long cardId) {
+        CardResponse cached = cardResponseCache.getCard(cardId);
+        if (cached != null) {
+            checkViewAccess(cached.getOwnerUsername());
+            return cached;
+        }
+
+        long cacheGeneration = cardResponseCache.generation();
+        boolean cacheable = readsFromPrimary();
         Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
+                .orElseThrow(() -> new CardNotFoundException(cardId));
+
+        checkViewAccess(card);
+
+        CardResponse response = withLedgerBalance(convertToResponse(card));
+        if (cacheable) {
+            cardResponseCache.putCard(response, cacheGeneration);
+        }
+        return response;
+    }
+
+    /**
+     * The {@code updatedAt} the card's response would carry, with the same access checks as
+     * {@link #getCardById(Long)} but without building the response.
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getCardVersion(Long cardId) {
+        CardResponse cached = cardResponseCache.getCard(cardId);
+        if (cached != null) {
+            checkViewAccess(cached.getOwnerUsername());
+            return cached.getUpdatedAt();
+        }
+
+        CardRepository.CardVersion version = cardRepository.findVersionById(cardId)
+                .orElseThrow(() -> new CardNotFoundException(cardId));
 
+        checkViewAccess(version.getOwnerUsername());
+
+        return ledgerUpdatedAt(version);
+    }
+
+    @Transactional(readOnly = true)
+    public CardStatementResponse getMonthlyStatement(Long cardId, YearMonth month) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new CardNotFoundException(cardId));
+
+        checkViewAccess(card);
+
+        return balanceSnapshotService.getMonthlyStatement(card, month);
+    }
+
+    private void checkViewAccess(Card card) {
         // Check access rights
         String currentUsername = getCurrentUsername();
         User currentUser = userRepository.findByUsername(currentUsername)
@@ -194,16 +554,36 @@ public class CardService {
             !card.getOwner().getId().equals(currentUser.getId())) {
             throw new UnauthorizedCardAccessException("Access denied: You can only view your own cards");
         }
+    }
+
+    // Same rule as above for cached responses and projections, decided from the authentication alone
+    private void checkViewAccess(String ownerUsername) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+
+        if (!isAdmin && !ownerUsername.equals(authentication.getName())) {
+            throw new UnauthorizedCardAccessException("Access denied: You can only view your own cards");
+        }
+    }
 
-        return convertToResponse(card);
+    // A replica may lag behind the commit that evicted the cache, so only primary reads are cached
+    private boolean readsFromPrimary() {
+        return replicaHealthMonitor == null || !replicaHealthMonitor.isHealthy();
     }
 
-    private CardResponse convertToResponse(Card card) {
+    // Evicted from the read cache after commit
+    private void publishCardChanged(Card card, CardChangedEvent.ChangeType changeType) {
+        eventPublisher.publishEvent(new CardChangedEvent(card.getId(), card.getOwner().getUsername(), changeType));
+    }
+
+    // Package-private for the JMH benchmark
+    CardResponse convertToResponse(Card card) {
         // Decrypt the card number for masking
         String decryptedCardNumber = cardEncryption.decrypt(card.getEncryptedCardNumber());
         String maskedCardNumber = cardEncryption.maskCardNumber(decryptedCardNumber);
 
-        return new CardResponse(
+        CardResponse response = new CardResponse(
                 card.getId(),
                 maskedCardNumber,
                 card.getOwner().getUsername(),
@@ -212,6 +592,41 @@ public class CardService {
                 card.getBalance(),
                 card.getCreatedAt()
         );
+        response.setUpdatedAt(card.getUpdatedAt());
+        return response;
+    }
+
+    // Card reads report the ledger balance: materialized balance plus postings not materialized yet
+    private List<CardResponse> withLedgerBalances(List<CardResponse> responses) {
+        ledgerService.applyBalances(responses);
+        return responses;
+    }
+
+    private CardResponse withLedgerBalance(CardResponse response) {
+        ledgerService.applyBalances(List.of(response));
+        return response;
+    }
+
+    private static LocalDateTime ledgerUpdatedAt(CardRepository.CardVersion version) {
+        return LedgerService.updatedAt(version.getUpdatedAt(), version.getMaterializedTxid(),
+                version.getMaterializedPostedAt(), version.getUnappliedPostedAt());
+    }
+
+    private TransferStatusResponse convertToStatusResponse(Transaction transaction) {
+        return new TransferStatusResponse(
+                transaction.getId(),
+                transaction.getFromCard().getId(),
+                transaction.getToCard().getId(),
+                transaction.getAmount(),
+                transaction.getStatus(),
+                transaction.getFailureReason(),
+                transaction.getTransactionDate()
+        );
+    }
+
+    private User getCurrentUser() {
+        return userRepository.findByUsername(getCurrentUsername())
+                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
     }
 
     private String getCurrentUsername() {
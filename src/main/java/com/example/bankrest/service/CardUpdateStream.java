@@ -0,0 +1,262 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.dto.CardUpdateResponse;
+import com.example.bankrest.event.CardChangedEvent;
+import com.example.bankrest.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user server-sent event streams of committed card changes.
+ * <p>
+ * Connections are async servlet requests, so an idle stream holds no thread. Each
+ * connection buffers at most {@code cards.stream.buffer-size} changed cards and keeps
+ * only the latest change per card: while a slow client is still being written to, newer
+ * balances replace the ones it has not received yet. When the buffer overflows it is
+ * cleared and the client is told to {@code resync} from {@code GET /api/cards/my}.
+ * <p>
+ * Buffers are drained on the application task executor, one task per connection at a
+ * time, reading the current status and balance from the primary.
+ * <p>
+ * Changes committed on this node arrive as events after commit; changes committed on other
+ * nodes are forwarded by {@code CacheInvalidationBus} when it receives their notification.
+ */
+@Service
+public class CardUpdateStream {
+
+    private static final Logger log = LoggerFactory.getLogger(CardUpdateStream.class);
+
+    private static final long RECONNECT_MILLIS = 5_000;
+
+    static final String RESYNC_OVERFLOW = "overflow";
+    static final String RESYNC_MISSED = "missed";
+
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final Duration timeout;
+    private final int bufferSize;
+
+    private final Map<String, Set<Connection>> connectionsByOwner = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter overflows;
+
+    public CardUpdateStream(CardRepository cardRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${cards.stream.timeout:30m}") Duration timeout,
+                            @Value("${cards.stream.buffer-size:32}") int bufferSize) {
+        this.cardRepository = cardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+
+        Gauge.builder("cards.stream.connections", this, CardUpdateStream::connectionCount)
+                .description("Open card update streams")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cards.stream.dropped")
+                .description("Card updates not sent to a stream")
+                .tag("reason", "coalesced")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("cards.stream.dropped")
+                .description("Card updates not sent to a stream")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String username) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        try {
+            // Commits the response headers so the client sees the stream open right away
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(RECONNECT_MILLIS));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        register(username, emitter);
+        return emitter;
+    }
+
+    Connection register(String username, SseEmitter emitter) {
+        Connection connection = new Connection(username, emitter);
+        connectionsByOwner.computeIfAbsent(username, key -> ConcurrentHashMap.newKeySet()).add(connection);
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unregister(connection));
+        return connection;
+    }
+
+    private void unregister(Connection connection) {
+        connectionsByOwner.computeIfPresent(connection.username, (key, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    // Also called by CacheInvalidationBus for changes committed on other nodes
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        Set<Connection> connections = connectionsByOwner.get(event.getOwnerUsername());
+        if (connections != null) {
+            connections.forEach(connection -> connection.offer(event));
+        }
+    }
+
+    // Changes from other nodes may have been missed (invalidation channel reconnected): reload everything
+    public void resyncAll() {
+        connectionsByOwner.values().forEach(connections -> connections.forEach(
+                connection -> connection.resync(RESYNC_MISSED)));
+    }
+
+    // Busy connections are writing updates already and skip the heartbeat
+    @Scheduled(fixedRateString = "${cards.stream.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        connectionsByOwner.values().forEach(connections -> connections.forEach(Connection::heartbeat));
+    }
+
+    @PreDestroy
+    public void completeAll() {
+        connectionsByOwner.values().forEach(connections -> connections.forEach(connection -> connection.emitter.complete()));
+    }
+
+    int connectionCount() {
+        return connectionsByOwner.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Read-write on purpose: a replica may not have replayed the commit that raised the event yet
+    private List<CardUpdateResponse> loadUpdates(Map<Long, CardChangedEvent.ChangeType> changes) {
+        Map<Long, CardRepository.CardState> states = transactionTemplate.execute(status ->
+                cardRepository.findStatesByIdIn(changes.keySet()).stream()
+                        .collect(Collectors.toMap(CardRepository.CardState::getId, Function.identity())));
+
+        List<CardUpdateResponse> updates = new ArrayList<>(changes.size());
+        changes.forEach((cardId, changeType) -> {
+            CardRepository.CardState state = states.get(cardId);
+            updates.add(state == null
+                    ? new CardUpdateResponse(cardId, CardChangedEvent.ChangeType.DELETED, null, null)
+                    : new CardUpdateResponse(cardId, changeType, state.getStatus(), state.getBalance()));
+        });
+        return updates;
+    }
+
+    final class Connection {
+
+        private final String username;
+        private final SseEmitter emitter;
+
+        // Guarded by this
+        private final Map<Long, CardChangedEvent.ChangeType> pending = new LinkedHashMap<>();
+        // Reason of the resync event to send, null when none is due
+        private String resync;
+        private boolean heartbeat;
+        private boolean draining;
+
+        private Connection(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(CardChangedEvent event) {
+            if (pending.put(event.getCardId(), event.getChangeType()) != null) {
+                coalesced.increment();
+            } else if (pending.size() > bufferSize) {
+                overflows.increment(pending.size());
+                pending.clear();
+                resync = RESYNC_OVERFLOW;
+            }
+            scheduleDrain();
+        }
+
+        synchronized void resync(String reason) {
+            pending.clear();
+            resync = reason;
+            scheduleDrain();
+        }
+
+        synchronized void heartbeat() {
+            if (!draining) {
+                heartbeat = true;
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (!draining) {
+                draining = true;
+                taskExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Map<Long, CardChangedEvent.ChangeType> changes;
+                String sendResync;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (pending.isEmpty() && resync == null && !heartbeat) {
+                        draining = false;
+                        return;
+                    }
+                    changes = new LinkedHashMap<>(pending);
+                    pending.clear();
+                    sendResync = resync;
+                    sendHeartbeat = heartbeat;
+                    resync = null;
+                    heartbeat = false;
+                }
+
+                try {
+                    if (sendResync != null) {
+                        emitter.send(SseEmitter.event().name("resync").data(sendResync));
+                    }
+                    if (!changes.isEmpty()) {
+                        for (CardUpdateResponse update : loadUpdates(changes)) {
+                            emitter.send(SseEmitter.event().name("card").data(update, MediaType.APPLICATION_JSON));
+                        }
+                    } else if (sendHeartbeat && sendResync == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter completed; draining stays set so nothing is queued again
+                    log.debug("Closing card update stream for {}: {}", username, e.getMessage());
+                    unregister(this);
+                    emitter.completeWithError(e);
+                    return;
+                } catch (RuntimeException e) {
+                    log.warn("Could not load card updates for {}", username, e);
+                    synchronized (this) {
+                        resync = RESYNC_OVERFLOW;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankrest.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs {@link LedgerService#materialize()} every {@code ledger.materializer.interval}, so card
+ * reads only add up the postings of the last interval. One node materializes at a time;
+ * the others skip their run. Postgres only.
+ */
+@Service
+@ConditionalOnProperty(name = "ledger.materializer.enabled", havingValue = "true")
+public class LedgerMaterializer {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerMaterializer.class);
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Scheduled(fixedDelayString = "${ledger.materializer.interval:1s}")
+    public void materialize() {
+        int cards = ledgerService.materialize();
+        if (cards < 0) {
+            log.debug("Ledger materialization skipped: another node holds the lock");
+        } else if (cards > 0) {
+            log.debug("Materialized ledger balances of {} cards", cards);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.dto.LedgerReplayResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.LedgerEntry;
+import com.example.bankrest.entity.Transaction;
+import com.example.bankrest.repository.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Double-entry ledger behind card balances.
+ * <p>
+ * Every money movement appends a journal of postings that sums to zero, in the transaction that
+ * moves the money: a transfer debits one card and credits the other, and a card opened with a
+ * balance is credited against the {@code OPENING} account. Postings are never updated and are
+ * appended with batched inserts, so appending contends on no row.
+ * <p>
+ * A card's balance is its row in {@code ledger_balances} plus its postings not materialized yet.
+ * {@link #materialize()} adds postings to {@code ledger_balances} up to the oldest transaction
+ * still running ({@code pg_snapshot_xmin}): every posting below that transaction id is committed
+ * or rolled back, so none can show up behind the watermark later. {@link #replay()} rebuilds
+ * {@code ledger_balances} from all postings and reconciles the result with {@code cards}.
+ * Both are Postgres only.
+ * <p>
+ * Scope: the ledger does not replace the {@code cards.balance} write. {@code cards.balance} (plus
+ * its shards) stays the balance of record: a transfer debits it with one guarded update, which is
+ * also the per-card serialization point of the overdraft check. Contention on hot destination
+ * cards is handled by balance shards, not here. The ledger is written in the same transaction as
+ * every change to that balance, so both agree at each commit; card reads report the ledger, and
+ * {@link #replay()} reports any card where they do not agree.
+ */
+@Service
+@Transactional
+public class LedgerService {
+
+    static final String APPEND_SQL =
+            "INSERT INTO ledger_entries (entry_type, reference_id, account, card_id, amount, posted_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Materialization and replay are exclusive across nodes
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('ledger.materialize'))";
+    static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('ledger.materialize'))";
+
+    static final String WATERMARK_SQL = "SELECT materialized_txid FROM ledger_state WHERE id = 1";
+
+    static final String HORIZON_SQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    static final String MATERIALIZE_SQL =
+            "INSERT INTO ledger_balances (card_id, balance, last_posted_at) " +
+            "SELECT card_id, SUM(amount), MAX(posted_at) FROM ledger_entries " +
+            "WHERE card_id IS NOT NULL AND txid >= ? AND txid < ? GROUP BY card_id " +
+            "ON CONFLICT (card_id) DO UPDATE SET " +
+            "balance = ledger_balances.balance + EXCLUDED.balance, " +
+            "last_posted_at = GREATEST(ledger_balances.last_posted_at, EXCLUDED.last_posted_at)";
+
+    static final String REBUILD_SQL =
+            "INSERT INTO ledger_balances (card_id, balance, last_posted_at) " +
+            "SELECT card_id, SUM(amount), MAX(posted_at) FROM ledger_entries " +
+            "WHERE card_id IS NOT NULL AND txid < ? GROUP BY card_id";
+
+    static final String ADVANCE_SQL = "UPDATE ledger_state SET materialized_txid = ? WHERE id = 1";
+
+    static final String UNBALANCED_JOURNALS_SQL =
+            "SELECT COUNT(*) FROM (SELECT 1 FROM ledger_entries " +
+            "GROUP BY entry_type, reference_id HAVING SUM(amount) <> 0) unbalanced";
+
+    // One statement, so card rows and postings come from the same snapshot
+    static final String MISMATCHES_SQL =
+            "SELECT c.id, c.balance + COALESCE(s.balance, 0), COALESCE(b.balance, 0) + COALESCE(u.balance, 0) " +
+            "FROM cards c " +
+            "LEFT JOIN (SELECT card_id, SUM(balance) AS balance FROM card_balance_shards GROUP BY card_id) s " +
+            "ON s.card_id = c.id " +
+            "LEFT JOIN ledger_balances b ON b.card_id = c.id " +
+            "LEFT JOIN (SELECT card_id, SUM(amount) AS balance FROM ledger_entries " +
+            "WHERE card_id IS NOT NULL AND txid >= ? GROUP BY card_id) u ON u.card_id = c.id " +
+            "WHERE c.balance + COALESCE(s.balance, 0) <> COALESCE(b.balance, 0) + COALESCE(u.balance, 0) " +
+            "ORDER BY c.id LIMIT 100";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    // Appends all transfers' postings in one JDBC batch
+    public void postTransfers(List<Transaction> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+
+        Timestamp postedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> postings = new ArrayList<>(transfers.size() * 2);
+        for (Transaction transfer : transfers) {
+            postings.add(cardPosting(LedgerEntry.EntryType.TRANSFER, transfer.getId(),
+                    transfer.getFromCard().getId(), transfer.getAmount().negate(), postedAt));
+            postings.add(cardPosting(LedgerEntry.EntryType.TRANSFER, transfer.getId(),
+                    transfer.getToCard().getId(), transfer.getAmount(), postedAt));
+        }
+        jdbcTemplate.batchUpdate(APPEND_SQL, postings);
+    }
+
+    public void postOpeningBalance(Card card) {
+        if (card.getBalance().signum() == 0) {
+            return;
+        }
+
+        Timestamp postedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPEND_SQL, List.of(
+                cardPosting(LedgerEntry.EntryType.OPENING_BALANCE, card.getId(), card.getId(), card.getBalance(), postedAt),
+                new Object[]{LedgerEntry.EntryType.OPENING_BALANCE.name(), card.getId(), LedgerEntry.Account.OPENING.name(),
+                        null, card.getBalance().negate(), postedAt}));
+    }
+
+    private Object[] cardPosting(LedgerEntry.EntryType entryType, Long referenceId, Long cardId,
+                                 BigDecimal amount, Timestamp postedAt) {
+        return new Object[]{entryType.name(), referenceId, LedgerEntry.Account.CARD.name(), cardId, amount, postedAt};
+    }
+
+    /**
+     * Replaces the balance of each response with its ledger balance, in one query for all of them.
+     * The latest posting also moves {@code updatedAt}, so a credit that left the card row alone
+     * (a balance shard) still changes the card's ETag. Without a {@code ledger_state} row (a schema
+     * generated from the entities, as on H2) the ledger is not maintained and {@code cards.balance}
+     * is left in place.
+     */
+    @Transactional(readOnly = true)
+    public void applyBalances(Collection<CardResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+
+        Map<Long, LedgerEntryRepository.CardBalance> balances = ledgerEntryRepository.findCardBalances(
+                        responses.stream().map(CardResponse::getId).toList()).stream()
+                .collect(Collectors.toMap(LedgerEntryRepository.CardBalance::getCardId, Function.identity()));
+        for (CardResponse response : responses) {
+            LedgerEntryRepository.CardBalance balance = balances.get(response.getId());
+            if (balance == null || balance.getMaterializedTxid() == null) {
+                continue;
+            }
+            response.setBalance(balance.getBalance());
+            response.setUpdatedAt(updatedAt(response.getUpdatedAt(), balance.getMaterializedTxid(),
+                    balance.getMaterializedPostedAt(), balance.getUnappliedPostedAt()));
+        }
+    }
+
+    // The updatedAt applyBalances reports; shared with the ETag projection so both give the same tag
+    static LocalDateTime updatedAt(LocalDateTime cardUpdatedAt, Long materializedTxid,
+                                   LocalDateTime materializedPostedAt, LocalDateTime unappliedPostedAt) {
+        if (materializedTxid == null) {
+            return cardUpdatedAt;
+        }
+        return latest(latest(cardUpdatedAt, materializedPostedAt), unappliedPostedAt);
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+
+    // Returns the number of cards whose materialized balance moved, or -1 when another node holds the lock
+    public int materialize() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class))) {
+            return -1;
+        }
+
+        long from = jdbcTemplate.queryForObject(WATERMARK_SQL, Long.class);
+        long to = jdbcTemplate.queryForObject(HORIZON_SQL, Long.class);
+        if (to <= from) {
+            return 0;
+        }
+        int cards = jdbcTemplate.update(MATERIALIZE_SQL, from, to);
+        jdbcTemplate.update(ADVANCE_SQL, to);
+        return cards;
+    }
+
+    /**
+     * Rebuilds {@code ledger_balances} from every posting, then checks that each journal sums to
+     * zero and that every card's balance, shards included, equals its ledger balance. Reports at
+     * most 100 mismatched cards.
+     */
+    public LedgerReplayResponse replay() {
+        jdbcTemplate.execute(LOCK_SQL);
+
+        long horizon = jdbcTemplate.queryForObject(HORIZON_SQL, Long.class);
+        jdbcTemplate.update("DELETE FROM ledger_balances");
+        int cards = jdbcTemplate.update(REBUILD_SQL, horizon);
+        jdbcTemplate.update(ADVANCE_SQL, horizon);
+
+        long unbalancedJournals = jdbcTemplate.queryForObject(UNBALANCED_JOURNALS_SQL, Long.class);
+        List<LedgerReplayResponse.Mismatch> mismatches = jdbcTemplate.query(MISMATCHES_SQL,
+                (rs, rowNum) -> new LedgerReplayResponse.Mismatch(rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3)),
+                horizon);
+        return new LedgerReplayResponse(cards, unbalancedJournals, mismatches);
+    }
+}
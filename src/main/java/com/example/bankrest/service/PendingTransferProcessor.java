@@ -0,0 +1,173 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.entity.Transaction;
+import com.example.bankrest.exception.CardBusyException;
+import com.example.bankrest.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs transfers queued by {@code POST /api/transfer/async}.
+ * <p>
+ * Each poll reads up to {@code transfers.async.batch-size} PENDING transfers, round-robin over
+ * source cards (see {@link TransactionRepository#findQueued}), groups them by source card and
+ * hands each group to a fixed worker pool with a bounded queue as one batch. A card with a long
+ * queue only gets what is left of the page after every other queued card had its turn, so
+ * skipping it while its batch is in flight does not hold the others back. A card has at most
+ * one batch in flight, so transfers from the same card run in submission order and never
+ * compete for its row lock. When the pool and its queue are full the remaining groups stay
+ * PENDING for the next poll.
+ * <p>
+ * The pool is private to this class rather than a bean: any {@code Executor} bean would make
+ * Spring Boot drop its {@code applicationTaskExecutor}. Each worker holds a database
+ * connection while it runs a batch, so {@code transfers.async.workers} also caps the
+ * connections transfers take from Hikari.
+ * <p>
+ * A batch holds the {@link CardLocks} of all its cards while it runs, so it queues in the JVM
+ * behind synchronous transfers on the same cards instead of on their row locks. If the locks
+ * are not free in time the batch stays PENDING for a later poll. Sharded destination cards are
+ * not locked, like in {@link TransferLockAspect}.
+ * <p>
+ * If a batch fails on a database error it is retried one transfer at a time; a transfer
+ * that still fails is marked FAILED instead of blocking the queue.
+ */
+@Service
+@ConditionalOnProperty(name = "transfers.async.enabled", havingValue = "true")
+public class PendingTransferProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingTransferProcessor.class);
+
+    static final String PROCESSING_FAILED = "Transfer could not be processed";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardLocks cardLocks;
+
+    @Autowired
+    private CardBalanceShardService balanceShardService;
+
+    @Value("${transfers.async.workers:4}")
+    private int workers;
+
+    @Value("${transfers.async.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${transfers.async.batch-size:100}")
+    private int batchSize;
+
+    private final Set<Long> cardsInFlight = ConcurrentHashMap.newKeySet();
+
+    private TaskExecutor transferExecutor;
+
+    @PostConstruct
+    void startWorkers() {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(workers);
+        pool.setMaxPoolSize(workers);
+        pool.setQueueCapacity(queueCapacity);
+        pool.setThreadNamePrefix("transfer-");
+        pool.setWaitForTasksToCompleteOnShutdown(true);
+        pool.setAwaitTerminationSeconds(30);
+        pool.initialize();
+        transferExecutor = pool;
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        if (transferExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transfers.async.poll-interval:200ms}")
+    public void dispatch() {
+        Map<Long, List<TransactionRepository.QueuedTransfer>> batches = new LinkedHashMap<>();
+        for (TransactionRepository.QueuedTransfer queued : transactionRepository.findQueued(
+                Transaction.TransactionStatus.PENDING, PageRequest.of(0, batchSize))) {
+            batches.computeIfAbsent(queued.getFromCardId(), cardId -> new ArrayList<>()).add(queued);
+        }
+
+        for (Map.Entry<Long, List<TransactionRepository.QueuedTransfer>> batch : batches.entrySet()) {
+            Long cardId = batch.getKey();
+            if (!cardsInFlight.add(cardId)) {
+                continue;
+            }
+            try {
+                transferExecutor.execute(() -> run(cardId, batch.getValue()));
+            } catch (TaskRejectedException e) {
+                cardsInFlight.remove(cardId);
+                log.debug("Transfer workers busy, remaining batches wait for the next poll");
+                return;
+            }
+        }
+    }
+
+    private void run(Long cardId, List<TransactionRepository.QueuedTransfer> batch) {
+        try {
+            execute(batch);
+        } catch (CardBusyException e) {
+            log.debug("Cards of the transfer batch for card {} are busy, retrying on a later poll", cardId);
+        } catch (RuntimeException e) {
+            log.warn("Transfer batch for card {} failed, retrying {} transfers one by one",
+                    cardId, batch.size(), e);
+            batch.forEach(this::runSingle);
+        } finally {
+            cardsInFlight.remove(cardId);
+        }
+    }
+
+    private void runSingle(TransactionRepository.QueuedTransfer queued) {
+        try {
+            execute(List.of(queued));
+        } catch (CardBusyException e) {
+            log.debug("Cards of transfer {} are busy, retrying on a later poll", queued.getId());
+        } catch (RuntimeException e) {
+            log.error("Transfer {} failed, marking it FAILED", queued.getId(), e);
+            try {
+                cardService.failPendingTransfer(queued.getId(), PROCESSING_FAILED);
+            } catch (RuntimeException markFailure) {
+                // Stays PENDING and is picked up by a later poll
+                log.error("Could not mark transfer {} as FAILED", queued.getId(), markFailure);
+            }
+        }
+    }
+
+    private void execute(List<TransactionRepository.QueuedTransfer> batch) {
+        List<Long> transactionIds = new ArrayList<>(batch.size());
+        Set<Long> cardIds = new HashSet<>();
+        for (TransactionRepository.QueuedTransfer queued : batch) {
+            transactionIds.add(queued.getId());
+            cardIds.add(queued.getFromCardId());
+            if (!balanceShardService.isSharded(queued.getToCardId())) {
+                cardIds.add(queued.getToCardId());
+            }
+        }
+        try (CardLocks.Held held = cardLocks.lock(cardIds)) {
+            cardService.executePendingTransfers(transactionIds);
+        }
+    }
+}
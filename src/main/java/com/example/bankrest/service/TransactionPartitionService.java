@@ -0,0 +1,145 @@
+package com.example.bankrest.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the {@code transactions} table:
+ * creates partitions ahead of time and detaches the ones past retention
+ * into the archive schema. Postgres only.
+ * <p>
+ * Partitions are detached with {@code DETACH PARTITION CONCURRENTLY}, so transfers keep
+ * writing while it runs. That cannot run inside a transaction, so a run holds one connection
+ * in autocommit mode and a session-level advisory lock instead of the transaction-level one of
+ * the other jobs; only one node maintains partitions at a time. A detach that was interrupted
+ * is finished on the next run.
+ * <p>
+ * There is no default partition (Postgres does not detach concurrently while one exists), so
+ * a transfer dated in a month without a partition fails. Startup and every run create
+ * {@code transactions.partitions.months-ahead} months ahead, so that takes months of failed runs.
+ */
+@Service
+@ConditionalOnProperty(name = "transactions.partitions.enabled", havingValue = "true")
+public class TransactionPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionService.class);
+
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('transactions.partitions'))";
+    static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('transactions.partitions'))";
+
+    static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'transactions'::regclass";
+
+    // Left behind when a DETACH PARTITION CONCURRENTLY was cancelled or its session died
+    static final String DETACH_PENDING_SQL = PARTITIONS_SQL + " AND i.inhdetachpending";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("transactions_y(\\d{4})m(\\d{2})");
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${transactions.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${transactions.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${transactions.partitions.archive-schema:transactions_archive}")
+    private String archiveSchema;
+
+    // The schema name goes into DDL as is
+    @PostConstruct
+    void checkArchiveSchema() {
+        if (!SCHEMA_NAME.matcher(archiveSchema).matches()) {
+            throw new IllegalStateException("transactions.partitions.archive-schema must be a lower-case SQL identifier: "
+                    + archiveSchema);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${transactions.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject(TRY_LOCK_SQL, Boolean.class))) {
+                log.debug("Partition maintenance skipped: another node holds the lock");
+                return null;
+            }
+            try {
+                createFuturePartitions(session, current);
+                detachExpiredPartitions(session, current);
+            } finally {
+                session.queryForObject(UNLOCK_SQL, Boolean.class);
+            }
+            return null;
+        });
+    }
+
+    void createFuturePartitions(JdbcTemplate session, YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            session.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF transactions FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        }
+    }
+
+    void detachExpiredPartitions(JdbcTemplate session, YearMonth current) {
+        for (String partition : session.queryForList(DETACH_PENDING_SQL, String.class)) {
+            session.execute("ALTER TABLE transactions DETACH PARTITION " + partition + " FINALIZE");
+            archive(session, partition);
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (String partition : session.queryForList(PARTITIONS_SQL, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                session.execute("ALTER TABLE transactions DETACH PARTITION " + partition + " CONCURRENTLY");
+                archive(session, partition);
+            }
+        }
+    }
+
+    private void archive(JdbcTemplate session, String partition) {
+        session.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+        session.execute("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema);
+        log.info("Detached transactions partition {} into schema {}", partition, archiveSchema);
+    }
+
+    static String partitionName(YearMonth month) {
+        return "transactions_" + month.format(SUFFIX);
+    }
+}
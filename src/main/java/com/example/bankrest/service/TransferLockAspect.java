@@ -0,0 +1,38 @@
+package com.example.bankrest.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Takes the {@link CardLocks} of both cards around {@link CardService#transferBetweenOwnCards}.
+ * Ordered ahead of the transaction interceptor (lowest precedence), so the transaction, and
+ * with it the pooled connection, only starts once this thread is first in line for both cards.
+ * A sharded destination is left out: its credit only touches one of its balance shards.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class TransferLockAspect {
+
+    private final CardLocks cardLocks;
+    private final CardBalanceShardService balanceShardService;
+
+    public TransferLockAspect(CardLocks cardLocks, CardBalanceShardService balanceShardService) {
+        this.cardLocks = cardLocks;
+        this.balanceShardService = balanceShardService;
+    }
+
+    @Around("execution(* com.example.bankrest.service.CardService.transferBetweenOwnCards(..)) && args(fromCardId, toCardId, ..)")
+    public Object serialize(ProceedingJoinPoint joinPoint, Long fromCardId, Long toCardId) throws Throwable {
+        Long lockedToCardId = balanceShardService.isSharded(toCardId) ? null : toCardId;
+        try (CardLocks.Held held = cardLocks.lock(Arrays.asList(fromCardId, lockedToCardId))) {
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bankrest.util;
 
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -27,6 +28,7 @@ public class CardNumberEncryption {
         return new SecretKeySpec(keyBytes, ALGORITHM);
     }
 
+    @Observed(name = "cards.encryption")
     public String encrypt(String cardNumber) {
         try {
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
@@ -38,6 +40,7 @@ public class CardNumberEncryption {
         }
     }
 
+    @Observed(name = "cards.encryption")
     public String decrypt(String encryptedCardNumber) {
         try {
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
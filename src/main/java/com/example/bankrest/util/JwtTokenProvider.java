@@ -2,6 +2,11 @@ package com.example.bankrest.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.annotation.Observed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,16 +18,22 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(jwtSecret.getBytes());
     }
 
+    @Observed(name = "security.jwt.generate")
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
@@ -56,6 +67,7 @@ public class JwtTokenProvider {
         return claims.getSubject();
     }
 
+    @Observed(name = "security.jwt.validate")
     public boolean validateToken(String authToken) {
         try {
             Jwts.parserBuilder()
@@ -64,14 +76,19 @@ public class JwtTokenProvider {
                     .parseClaimsJws(authToken);
             return true;
         } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            rejectToken("malformed", "Invalid JWT token");
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
+            rejectToken("expired", "Expired JWT token");
         } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            rejectToken("unsupported", "Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            rejectToken("empty", "JWT claims string is empty");
         }
         return false;
     }
+
+    private void rejectToken(String reason, String message) {
+        log.debug(message);
+        meterRegistry.counter("security.jwt.rejected", "reason", reason).increment();
+    }
 }
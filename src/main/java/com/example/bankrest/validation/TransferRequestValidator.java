@@ -0,0 +1,94 @@
+package com.example.bankrest.validation;
+
+import com.example.bankrest.dto.TransferRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.Validator;
+
+import java.math.BigDecimal;
+
+/**
+ * Hand-written equivalent of the Bean Validation constraints on {@link TransferRequest}, used by
+ * {@code TransferController} in place of Hibernate Validator.
+ * <p>
+ * The checks and messages mirror the annotations one to one, which stay on the DTO as the
+ * declarative contract and for the OpenAPI schema. A valid request allocates nothing; each
+ * violation adds one {@link FieldError}, so {@code GlobalExceptionHandler} builds the same
+ * {@code ErrorResponse.ValidationError}s as before. {@code TransferRequestValidatorTest} checks
+ * both validators agree, so a constraint changed on the DTO must be changed here too.
+ */
+@Component
+public class TransferRequestValidator implements Validator {
+
+    static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    static final BigDecimal MAX_AMOUNT = new BigDecimal("999999.99");
+    static final int AMOUNT_INTEGER_DIGITS = 6;
+    static final int AMOUNT_FRACTION_DIGITS = 2;
+    static final int DESCRIPTION_MAX_LENGTH = 255;
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return TransferRequest.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        TransferRequest request = (TransferRequest) target;
+
+        Long fromCardId = request.getFromCardId();
+        if (fromCardId == null) {
+            reject(errors, "fromCardId", null, "Source card ID is required");
+        } else if (fromCardId <= 0) {
+            reject(errors, "fromCardId", fromCardId, "Source card ID must be positive");
+        }
+
+        Long toCardId = request.getToCardId();
+        if (toCardId == null) {
+            reject(errors, "toCardId", null, "Destination card ID is required");
+        } else if (toCardId <= 0) {
+            reject(errors, "toCardId", toCardId, "Destination card ID must be positive");
+        }
+
+        BigDecimal amount = request.getAmount();
+        if (amount == null) {
+            reject(errors, "amount", null, "Amount is required");
+        } else {
+            if (amount.compareTo(MIN_AMOUNT) < 0) {
+                reject(errors, "amount", amount, "Amount must be greater than 0");
+            }
+            if (amount.compareTo(MAX_AMOUNT) > 0) {
+                reject(errors, "amount", amount, "Amount cannot exceed 999,999.99");
+            }
+            if (!hasAmountDigits(amount)) {
+                reject(errors, "amount", amount, "Amount must have at most 6 integer digits and 2 decimal places");
+            }
+        }
+
+        String description = request.getDescription();
+        if (description != null && description.length() > DESCRIPTION_MAX_LENGTH) {
+            reject(errors, "description", description, "Description cannot exceed 255 characters");
+        }
+
+        if (!request.isValidTransfer()) {
+            reject(errors, "validTransfer", false, "Source and destination cards must be different");
+        }
+    }
+
+    // Same rule as @Digits on a BigDecimal: the scale counts as written, so 10.500 has 3 fraction digits
+    static boolean hasAmountDigits(BigDecimal amount) {
+        int scale = amount.scale();
+        return amount.precision() - scale <= AMOUNT_INTEGER_DIGITS && Math.max(scale, 0) <= AMOUNT_FRACTION_DIGITS;
+    }
+
+    private static void reject(Errors errors, String field, Object rejectedValue, String message) {
+        if (errors instanceof BindingResult bindingResult) {
+            // Skips the bean wrapper lookup of rejectValue(), the value is already at hand
+            bindingResult.addError(new FieldError(errors.getObjectName(), field, rejectedValue, false,
+                    null, null, message));
+        } else {
+            errors.rejectValue(field, "", message);
+        }
+    }
+}
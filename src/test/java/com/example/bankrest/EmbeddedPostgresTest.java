@@ -0,0 +1,54 @@
+package com.example.bankrest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base for tests that need real Postgres behaviour (row locks, native SQL, partitions).
+ * <p>
+ * One embedded Postgres is started per test JVM and migrated by Liquibase when the first
+ * context starts; all subclasses share it and the cached context, so they use their own
+ * users and cards. Scheduled jobs are off, tests call the services directly.
+ */
+public abstract class EmbeddedPostgresTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres server = postgres();
+        registry.add("spring.datasource.url", () -> server.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("transactions.partitions.enabled", () -> "false");
+        registry.add("cards.expiry.enabled", () -> "false");
+        registry.add("transfers.async.enabled", () -> "false");
+        registry.add("cards.balance-shards.enabled", () -> "false");
+        registry.add("ledger.materializer.enabled", () -> "false");
+        registry.add("outbox.publisher.enabled", () -> "false");
+        registry.add("cache.invalidation.enabled", () -> "false");
+    }
+
+    private static synchronized EmbeddedPostgres postgres() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Embedded Postgres did not start", e);
+            }
+            EmbeddedPostgres started = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                    // The JVM is exiting anyway
+                }
+            }));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bankrest.cache;
+
+import com.example.bankrest.entity.User;
+import com.example.bankrest.event.CardChangedEvent;
+import com.example.bankrest.service.CardUpdateStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CardResponseCache cardResponseCache;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private CardUpdateStream cardUpdateStream;
+
+    @InjectMocks
+    private CacheInvalidationBus bus;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(bus, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(bus, "latencyTimer", meterRegistry.timer("cache.invalidation.latency"));
+    }
+
+    @Test
+    void onCardChanged_NotifiesCardAndOwnerKeys() {
+        // Act
+        bus.onCardChanged(new CardChangedEvent(7L, "alice", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+
+        // Assert
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).queryForObject(eq("SELECT pg_notify(?, ?)"), eq(Object.class),
+                eq(CacheInvalidationBus.CHANNEL), payload.capture());
+        assertTrue(((String) payload.getValue()).endsWith("|card:7:BALANCE_CHANGED,owner:alice"));
+    }
+
+    @Test
+    void handle_RemoteNode_EvictsKeysAndRecordsLatency() {
+        // Act
+        bus.handle("other-node|" + System.currentTimeMillis() + "|card:7:BALANCE_CHANGED,owner:alice");
+
+        // Assert
+        verify(cardResponseCache).evictCard(7L);
+        verify(cardResponseCache).evictOwner("alice");
+        assertEquals(1, meterRegistry.timer("cache.invalidation.latency").count());
+        assertTrue(meterRegistry.timer("cache.invalidation.latency").max(TimeUnit.MILLISECONDS) >= 0);
+    }
+
+    @Test
+    void handle_RemoteCardChange_ForwardedToCardUpdateStream() {
+        // Act
+        bus.handle("other-node|" + System.currentTimeMillis() + "|card:7:BLOCKED,owner:alice");
+
+        // Assert
+        ArgumentCaptor<CardChangedEvent> event = ArgumentCaptor.forClass(CardChangedEvent.class);
+        verify(cardUpdateStream).onCardChanged(event.capture());
+        assertEquals(7L, event.getValue().getCardId());
+        assertEquals("alice", event.getValue().getOwnerUsername());
+        assertEquals(CardChangedEvent.ChangeType.BLOCKED, event.getValue().getChangeType());
+    }
+
+    @Test
+    void handle_UserKey_EvictsSecondLevelCache() {
+        // Act
+        bus.handle("other-node|" + System.currentTimeMillis() + "|user:alice");
+
+        // Assert
+        verify(cardResponseCache).evictOwner("alice");
+        verify(entityManagerFactory.getCache()).evict(User.class);
+    }
+
+    @Test
+    void onListening_FlushesCachesAndResyncsStreams() {
+        // Act
+        bus.onListening();
+
+        // Assert
+        verify(cardResponseCache).evictAll();
+        verify(entityManagerFactory.getCache()).evict(User.class);
+        verify(cardUpdateStream).resyncAll();
+    }
+
+    @Test
+    void handle_OwnNode_IsIgnored() {
+        // Arrange
+        String nodeId = (String) ReflectionTestUtils.getField(bus, "nodeId");
+
+        // Act
+        bus.handle(nodeId + "|" + System.currentTimeMillis() + "|card:7");
+
+        // Assert
+        verifyNoInteractions(cardResponseCache, cardUpdateStream);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankrest.cache;
+
+import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.event.CardChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardResponseCacheTest {
+
+    private CardResponseCache cache;
+    private CardResponse card;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CardResponseCache(100, Duration.ofMinutes(1));
+        card = new CardResponse(1L, "**** **** **** 1234", "user", LocalDate.now().plusYears(2),
+                Card.CardStatus.ACTIVE, new BigDecimal("100.00"), LocalDateTime.now());
+    }
+
+    @Test
+    void putCard_ThenGet_ReturnsCachedResponse() {
+        // Act
+        cache.putCard(card, cache.generation());
+
+        // Assert
+        assertSame(card, cache.getCard(1L));
+    }
+
+    @Test
+    void putCard_EvictionDuringLoad_DiscardsValue() {
+        // Arrange
+        long generation = cache.generation();
+        cache.evictCard(1L);
+
+        // Act
+        cache.putCard(card, generation);
+
+        // Assert
+        assertNull(cache.getCard(1L));
+    }
+
+    @Test
+    void onCardChanged_EvictsCardAndOwnerEntries() {
+        // Arrange
+        cache.putCard(card, cache.generation());
+        cache.putOwnerCards("user", List.of(card), cache.generation());
+
+        // Act
+        cache.onCardChanged(new CardChangedEvent(1L, "user", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+
+        // Assert
+        assertNull(cache.getCard(1L));
+        assertNull(cache.getOwnerCards("user"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bankrest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HikariPoolConfigTest {
+
+    @Test
+    void poolSize_UsesCoresTimesTwoPlusSpindles() {
+        assertEquals(9, HikariPoolConfig.poolSize(4, 1));
+        assertEquals(18, HikariPoolConfig.poolSize(8, 2));
+    }
+
+    @Test
+    void sizer_NoExplicitSize_SizesFixedPoolFromDatabaseCores() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("db.pool.database-cores", "8")
+                .withProperty("db.pool.effective-spindles", "2");
+        HikariDataSource dataSource = new HikariDataSource();
+
+        // Act
+        new HikariPoolConfig.HikariPoolSizer(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+        // Assert
+        assertEquals(18, dataSource.getMaximumPoolSize());
+        assertEquals(18, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    void sizer_ExplicitSize_LeavesPoolUntouched() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(HikariPoolConfig.MAXIMUM_POOL_SIZE, "20");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(20);
+
+        // Act
+        new HikariPoolConfig.HikariPoolSizer(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+        // Assert
+        assertEquals(20, dataSource.getMaximumPoolSize());
+    }
+}
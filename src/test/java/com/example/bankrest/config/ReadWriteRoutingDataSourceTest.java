@@ -0,0 +1,54 @@
+package com.example.bankrest.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private ReplicaHealthMonitor replicaHealthMonitor;
+
+    @InjectMocks
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransaction_HealthyReplica_RoutesToReplica() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaHealthMonitor.isHealthy()).thenReturn(true);
+
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_UnhealthyReplica_FallsBackToPrimary() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaHealthMonitor.isHealthy()).thenReturn(false);
+
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readWriteTransaction_RoutesToPrimary() {
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        verifyNoInteractions(replicaHealthMonitor);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.bankrest.dto.CardResponse;
 import com.example.bankrest.dto.CreateCardRequest;
 import com.example.bankrest.entity.Card;
 import com.example.bankrest.service.CardService;
+import com.example.bankrest.service.CardUpdateStream;
 import com.example.bankrest.util.JwtTokenProvider;
 import com.example.bankrest.security.JwtAuthenticationFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,6 +39,9 @@ class CardControllerTest {
     @MockitoBean
     private CardService cardService;
 
+    @MockitoBean
+    private CardUpdateStream cardUpdateStream;
+
     @MockitoBean
     private JwtTokenProvider jwtTokenProvider;
 
@@ -0,0 +1,72 @@
+package com.example.bankrest.controller;
+
+import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.entity.Card;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardETagsTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 10, 19, 12, 30, 15, 123_456_000);
+
+    @Test
+    void of_SameIdAndUpdatedAt_SameTag() {
+        assertEquals(CardETags.of(card(1L, UPDATED_AT)), CardETags.of(card(1L, UPDATED_AT)));
+    }
+
+    @Test
+    void of_UpdatedAtMovesByOneMicrosecond_TagChanges() {
+        assertNotEquals(CardETags.of(card(1L, UPDATED_AT)), CardETags.of(card(1L, UPDATED_AT.plusNanos(1_000))));
+    }
+
+    @Test
+    void of_List_ChangesWhenAnyCardChangesOrIsRemoved() {
+        // Arrange
+        List<CardResponse> cards = List.of(card(1L, UPDATED_AT), card(2L, UPDATED_AT));
+        String tag = CardETags.of(cards);
+
+        // Assert
+        assertEquals(tag, CardETags.of(List.of(card(1L, UPDATED_AT), card(2L, UPDATED_AT))));
+        assertNotEquals(tag, CardETags.of(List.of(card(1L, UPDATED_AT), card(2L, UPDATED_AT.plusSeconds(1)))));
+        assertNotEquals(tag, CardETags.of(List.of(card(1L, UPDATED_AT))));
+        assertNotEquals(tag, CardETags.of(List.of(card(2L, UPDATED_AT), card(1L, UPDATED_AT))));
+    }
+
+    @Test
+    void of_VersionMap_SameTagAsTheResponses() {
+        // Arrange
+        Map<Long, LocalDateTime> versions = new LinkedHashMap<>();
+        versions.put(1L, UPDATED_AT);
+        versions.put(2L, UPDATED_AT.plusSeconds(1));
+
+        // Assert
+        assertEquals(CardETags.of(List.of(card(1L, UPDATED_AT), card(2L, UPDATED_AT.plusSeconds(1)))),
+                CardETags.of(versions));
+        assertEquals(CardETags.of(card(1L, UPDATED_AT)), CardETags.of(1L, UPDATED_AT));
+    }
+
+    @Test
+    void matches_QuotedTagInList_WeakPrefixOrWildcard() {
+        assertTrue(CardETags.matches("\"1-a\"", "1-a"));
+        assertTrue(CardETags.matches("\"0-b\", W/\"1-a\"", "1-a"));
+        assertTrue(CardETags.matches("*", "1-a"));
+        assertFalse(CardETags.matches("\"1-b\"", "1-a"));
+        assertFalse(CardETags.matches("1-a", "1-a"));
+        assertFalse(CardETags.matches(null, "1-a"));
+    }
+
+    private CardResponse card(Long id, LocalDateTime updatedAt) {
+        CardResponse card = new CardResponse(id, "**** **** **** 1234", "john", LocalDate.of(2030, 1, 1),
+                Card.CardStatus.ACTIVE, new BigDecimal("100.00"), UPDATED_AT.minusDays(1));
+        card.setUpdatedAt(updatedAt);
+        return card;
+    }
+}
@@ -1,13 +1,21 @@
 package com.example.bankrest.controller;
 
 import com.example.bankrest.dto.TransferRequest;
+import com.example.bankrest.exception.CardBusyException;
+import com.example.bankrest.exception.CardNotFoundException;
+import com.example.bankrest.exception.GlobalExceptionHandler;
+import com.example.bankrest.exception.InsufficientFundsException;
+import com.example.bankrest.exception.TransferNotFoundException;
+import com.example.bankrest.exception.UnauthorizedCardAccessException;
 import com.example.bankrest.service.CardService;
+import com.example.bankrest.validation.TransferRequestValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -16,8 +24,10 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,6 +37,9 @@ class TransferControllerSimpleTest {
     @Mock
     private CardService cardService;
 
+    @Spy
+    private TransferRequestValidator transferRequestValidator = new TransferRequestValidator();
+
     @InjectMocks
     private TransferController transferController;
 
@@ -36,7 +49,9 @@ class TransferControllerSimpleTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(transferController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(transferController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
         objectMapper = new ObjectMapper();
 
         transferRequest = new TransferRequest();
@@ -63,9 +78,9 @@ class TransferControllerSimpleTest {
     }
 
     @Test
-    void transferBetweenOwnCards_ServiceError() throws Exception {
+    void transferBetweenOwnCards_InsufficientFunds_BadRequestWithErrorResponse() throws Exception {
         // Arrange
-        doThrow(new RuntimeException("Insufficient balance"))
+        doThrow(new InsufficientFundsException())
                 .when(cardService).transferBetweenOwnCards(1L, 2L, BigDecimal.valueOf(100.00));
 
         // Act & Assert
@@ -73,9 +88,84 @@ class TransferControllerSimpleTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(transferRequest)))
                 .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.success").value(false))
-                .andExpect(jsonPath("$.message").value("Insufficient balance"));
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Insufficient funds for this operation"))
+                .andExpect(jsonPath("$.path").value("/api/transfer"));
 
         verify(cardService).transferBetweenOwnCards(1L, 2L, BigDecimal.valueOf(100.00));
     }
+
+    @Test
+    void transferBetweenOwnCards_SameCard_ValidationError() throws Exception {
+        // Arrange
+        transferRequest.setToCardId(1L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Failed"))
+                .andExpect(jsonPath("$.validationErrors[0].field").value("validTransfer"))
+                .andExpect(jsonPath("$.validationErrors[0].rejectedValue").value(false))
+                .andExpect(jsonPath("$.validationErrors[0].message").value("Source and destination cards must be different"));
+
+        verifyNoInteractions(cardService);
+    }
+
+    @Test
+    void transferBetweenOwnCards_CardNotFound_NotFound() throws Exception {
+        // Arrange
+        doThrow(new CardNotFoundException(2L))
+                .when(cardService).transferBetweenOwnCards(1L, 2L, BigDecimal.valueOf(100.00));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Card not found"));
+    }
+
+    @Test
+    void transferBetweenOwnCards_CardBusy_ServiceUnavailableWithRetryAfter() throws Exception {
+        // Arrange
+        doThrow(new CardBusyException("Card is busy, please retry the transfer"))
+                .when(cardService).transferBetweenOwnCards(1L, 2L, BigDecimal.valueOf(100.00));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getTransferStatus_OtherUsersTransfer_Forbidden() throws Exception {
+        // Arrange
+        when(cardService.getTransferStatus(5L))
+                .thenThrow(new UnauthorizedCardAccessException("Access denied: You can only view your own transfers"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transfer/5"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getTransferStatus_Unknown_NotFound() throws Exception {
+        // Arrange
+        when(cardService.getTransferStatus(5L)).thenThrow(new TransferNotFoundException(5L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transfer/5"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Transfer not found"));
+    }
+
+    @Test
+    void domainException_HasNoStackTrace() {
+        // Act & Assert
+        assertEquals(0, new InsufficientFundsException().getStackTrace().length);
+    }
 }
@@ -4,11 +4,13 @@ import com.example.bankrest.dto.TransferRequest;
 import com.example.bankrest.service.CardService;
 import com.example.bankrest.util.JwtTokenProvider;
 import com.example.bankrest.security.JwtAuthenticationFilter;
+import com.example.bankrest.validation.TransferRequestValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -23,6 +25,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TransferController.class)
+@Import(TransferRequestValidator.class)
 class TransferControllerTest {
 
     @Autowired
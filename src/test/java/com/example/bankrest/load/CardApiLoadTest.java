@@ -0,0 +1,366 @@
+package com.example.bankrest.load;
+
+import com.example.bankrest.dto.LoginRequest;
+import com.example.bankrest.dto.TransferRequest;
+import com.example.bankrest.util.CardNumberEncryption;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * End-to-end load test: HTTP client → security filter → controllers → {@code CardService} → Postgres.
+ * <p>
+ * Starts the application on a random port against an embedded Postgres migrated by Liquibase,
+ * seeds users, cards and transactions, then drives a weighted mix of login, list, get and
+ * transfer requests from a fixed number of client threads. Reports throughput and
+ * p50/p99/p999 latency per endpoint to stdout and {@code target/load-test/results.csv}.
+ * <p>
+ * Tagged {@code load} and excluded from the default build; run with
+ * {@code ./mvnw -Pload-test test} and tune with the {@code load.*} system properties below.
+ * With {@code load.pinning-check} on a Java 21 server running virtual threads, the measured run
+ * is recorded with {@link PinnedThreadRecorder} and any pinned virtual thread fails the test.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CardApiLoadTest {
+
+    private static final String PASSWORD = "Load1234";
+
+    private static final int USERS = Integer.getInteger("load.users", 100);
+    private static final int CARDS_PER_USER = Math.max(2, Integer.getInteger("load.cards-per-user", 2));
+    private static final int TRANSACTIONS = Integer.getInteger("load.transactions", 50_000);
+    private static final int CLIENT_THREADS = Integer.getInteger("load.threads", 32);
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("load.virtual-threads");
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+    // Relative weights of each request type
+    private static final String MIX = System.getProperty("load.mix", "login=5,list=35,get=40,transfer=20");
+    // Fail when a server virtual thread blocks while pinned during the measured run (Java 21)
+    private static final boolean PINNING_CHECK = Boolean.getBoolean("load.pinning-check");
+
+    private static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CardNumberEncryption cardEncryption;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean serverVirtualThreads;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    // username -> card ids, in seed order
+    private final Map<String, List<Long>> cardsByUser = new LinkedHashMap<>();
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void cardApiMix() throws Exception {
+        // Arrange
+        if (PINNING_CHECK) {
+            assumeTrue(Runtime.version().feature() >= 21, "load.pinning-check needs Java 21");
+            assertTrue(serverVirtualThreads, "load.pinning-check needs spring.threads.virtual.enabled=true");
+        }
+        seed();
+        Map<String, Integer> weights = parseMix(MIX);
+
+        // Act
+        run(weights, WARMUP, new LinkedHashMap<>());
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        weights.keySet().forEach(name -> stats.put(name, new EndpointStats(name)));
+        List<String> pinned;
+        if (PINNING_CHECK) {
+            pinned = runRecordingPinnedThreads(weights, stats);
+        } else {
+            run(weights, DURATION, stats);
+            pinned = List.of();
+        }
+
+        // Assert
+        report(stats);
+        if (PINNING_CHECK) {
+            System.out.printf("Pinned virtual threads: %d%n", pinned.size());
+            pinned.stream().limit(20).forEach(System.out::println);
+        }
+        for (EndpointStats endpoint : stats.values()) {
+            assertTrue(endpoint.getCount() > 0, "No requests completed for " + endpoint.getName());
+            assertEquals(0, endpoint.getErrors(), "Failed requests for " + endpoint.getName());
+        }
+        assertTrue(pinned.isEmpty(), () -> pinned.size() + " pinned virtual threads, first at " + pinned.get(0));
+    }
+
+    private void seed() {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"load" + i, passwordHash, "load" + i + "@load.test"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email, role) VALUES (?, ?, ?, 'USER')", users);
+
+        Date expiry = Date.valueOf(LocalDate.now().plusYears(3));
+        List<Object[]> cards = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                String number = String.format("4%015d", (long) i * CARDS_PER_USER + c);
+                cards.add(new Object[]{cardEncryption.encrypt(number), expiry, "load" + i});
+            }
+        }
+        // Balances large enough that transfers never run out of funds
+        jdbcTemplate.batchUpdate("INSERT INTO cards (encrypted_card_number, owner_id, expiry_date, status, balance) " +
+                "SELECT ?, id, ?, 'ACTIVE', 1000000.00 FROM users WHERE username = ?", cards);
+        jdbcTemplate.update("INSERT INTO ledger_entries (entry_type, reference_id, account, card_id, amount) " +
+                "SELECT 'OPENING_BALANCE', id, 'CARD', id, balance FROM cards " +
+                "UNION ALL SELECT 'OPENING_BALANCE', id, 'OPENING', NULL, -balance FROM cards");
+
+        jdbcTemplate.query("SELECT u.username, c.id FROM cards c JOIN users u ON u.id = c.owner_id ORDER BY c.id",
+                rs -> {
+                    cardsByUser.computeIfAbsent(rs.getString("username"), u -> new ArrayList<>()).add(rs.getLong("id"));
+                });
+
+        // History spread over the current month, whose partition always exists
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        long secondsSoFar = Math.max(1, Duration.between(monthStart, LocalDateTime.now()).toSeconds());
+        List<String> usernames = new ArrayList<>(cardsByUser.keySet());
+        List<Object[]> transactions = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            List<Long> userCards = cardsByUser.get(usernames.get(random.nextInt(usernames.size())));
+            transactions.add(new Object[]{userCards.get(0), userCards.get(1), BigDecimal.valueOf(random.nextInt(1, 10_000), 2),
+                    Timestamp.valueOf(monthStart.plusSeconds(random.nextLong(secondsSoFar))), userCards.get(0)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (from_card_id, to_card_id, from_owner_id, to_owner_id, " +
+                "amount, transaction_date, description, status) " +
+                "SELECT ?, ?, c.owner_id, c.owner_id, ?, ?, 'seed', 'COMPLETED' FROM cards c WHERE c.id = ?", transactions);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void run(Map<String, Integer> weights, Duration duration, Map<String, EndpointStats> stats)
+            throws InterruptedException {
+        List<String> usernames = new ArrayList<>(cardsByUser.keySet());
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = newClientExecutor();
+        try {
+            for (int t = 0; t < CLIENT_THREADS; t++) {
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String username = usernames.get(random.nextInt(usernames.size()));
+                        String endpoint = pick(weights, random);
+                        long start = System.nanoTime();
+                        boolean ok = call(endpoint, username, random);
+                        long latency = System.nanoTime() - start;
+                        EndpointStats endpointStats = stats.get(endpoint);
+                        if (endpointStats != null) {
+                            if (ok) {
+                                endpointStats.record(latency);
+                            } else {
+                                endpointStats.recordError();
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            clients.shutdown();
+        }
+        assertTrue(clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS), "Load clients did not finish");
+    }
+
+    private List<String> runRecordingPinnedThreads(Map<String, Integer> weights, Map<String, EndpointStats> stats)
+            throws InterruptedException, IOException {
+        try (PinnedThreadRecorder recorder = new PinnedThreadRecorder()) {
+            run(weights, DURATION, stats);
+            return recorder.stop(Path.of("target", "load-test", "pinning.jfr"));
+        }
+    }
+
+    private boolean call(String endpoint, String username, ThreadLocalRandom random) {
+        try {
+            List<Long> cards = cardsByUser.get(username);
+            HttpResponse<String> response = switch (endpoint) {
+                case "login" -> send(loginRequest(username));
+                case "list" -> send(authorized(username, "/api/cards/my").GET().build());
+                case "get" -> send(authorized(username, "/api/cards/" + cards.get(random.nextInt(cards.size()))).GET().build());
+                case "transfer" -> {
+                    int from = random.nextInt(cards.size());
+                    int to = (from + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+                    TransferRequest transfer = new TransferRequest();
+                    transfer.setFromCardId(cards.get(from));
+                    transfer.setToCardId(cards.get(to));
+                    transfer.setAmount(new BigDecimal("1.00"));
+                    yield send(authorized(username, "/api/transfer")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(transfer)))
+                            .build());
+                }
+                default -> throw new IllegalArgumentException("Unknown endpoint in load.mix: " + endpoint);
+            };
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest.Builder authorized(String username, String path) throws IOException, InterruptedException {
+        String token = tokens.get(username);
+        if (token == null) {
+            HttpResponse<String> login = send(loginRequest(username));
+            if (login.statusCode() != 200) {
+                throw new IOException("Login failed for " + username + ": " + login.statusCode());
+            }
+            token = objectMapper.readTree(login.body()).get("accessToken").asText();
+            tokens.put(username, token);
+        }
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest loginRequest(String username) throws IOException {
+        LoginRequest login = new LoginRequest();
+        login.setUsername(username);
+        login.setPassword(PASSWORD);
+        return HttpRequest.newBuilder(uri("/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(login)))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private ExecutorService newClientExecutor() {
+        if (!VIRTUAL_THREADS) {
+            return Executors.newFixedThreadPool(CLIENT_THREADS);
+        }
+        // Looked up reflectively so the test still compiles for Java 17
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("load.virtual-threads requires Java 21", e);
+        }
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(parts[0].trim(), weight);
+            }
+        }
+        return weights;
+    }
+
+    private static String pick(Map<String, Integer> weights, ThreadLocalRandom random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty load.mix");
+    }
+
+    private void report(Map<String, EndpointStats> stats) throws IOException {
+        double seconds = DURATION.toMillis() / 1000.0;
+        String header = String.format("%-10s %10s %8s %10s %10s %10s %10s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        System.out.printf("%nLoad test: %d users, %d cards/user, %d transactions, %d %s clients, %ds%n",
+                USERS, CARDS_PER_USER, TRANSACTIONS, CLIENT_THREADS, VIRTUAL_THREADS ? "virtual" : "platform",
+                DURATION.toSeconds());
+        System.out.println(header);
+
+        Path csv = Path.of("target", "load-test", "results.csv");
+        Files.createDirectories(csv.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("endpoint,requests,errors,throughput,p50_ms,p99_ms,p999_ms");
+            for (EndpointStats endpoint : stats.values()) {
+                System.out.printf("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                        endpoint.getName(), endpoint.getCount(), endpoint.getErrors(), endpoint.throughput(seconds),
+                        endpoint.percentileMillis(0.50), endpoint.percentileMillis(0.99), endpoint.percentileMillis(0.999));
+                out.printf("%s,%d,%d,%.1f,%.2f,%.2f,%.2f%n",
+                        endpoint.getName(), endpoint.getCount(), endpoint.getErrors(), endpoint.throughput(seconds),
+                        endpoint.percentileMillis(0.50), endpoint.percentileMillis(0.99), endpoint.percentileMillis(0.999));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankrest.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency samples and error count for one endpoint of the load test.
+ * Keeps every sample, so percentiles are exact rather than bucketed.
+ */
+class EndpointStats {
+
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private long[] samples = new long[1024];
+    private int count;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long latencyNanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyNanos;
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    double throughput(double seconds) {
+        return getCount() / seconds;
+    }
+
+    // Nearest-rank percentile in milliseconds, p in (0, 1]
+    synchronized double percentileMillis(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p * count);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
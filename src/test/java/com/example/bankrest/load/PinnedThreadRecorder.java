@@ -0,0 +1,68 @@
+package com.example.bankrest.load;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JFR recording of {@code jdk.VirtualThreadPinned}: a virtual thread that blocked while pinned to
+ * its carrier, e.g. inside a {@code synchronized} block. Every pinned block is recorded, however
+ * short. Java 21 only; older JVMs have no such event and record nothing.
+ */
+class PinnedThreadRecorder implements AutoCloseable {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int FRAMES = 8;
+
+    private final Recording recording = new Recording();
+
+    PinnedThreadRecorder() {
+        recording.enable(EVENT).withStackTrace().withThreshold(Duration.ZERO);
+        recording.start();
+    }
+
+    /**
+     * Stops the recording and keeps it in {@code file} for {@code jfr print --events
+     * jdk.VirtualThreadPinned}. Returns one line per pinned block: its duration and top frames.
+     */
+    List<String> stop(Path file) throws IOException {
+        recording.stop();
+        Files.createDirectories(file.getParent());
+        recording.dump(file);
+
+        List<String> pinned = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (EVENT.equals(event.getEventType().getName())) {
+                pinned.add(describe(event));
+            }
+        }
+        return pinned;
+    }
+
+    private static String describe(RecordedEvent event) {
+        String frames = event.getStackTrace() == null ? "no stack trace" : event.getStackTrace().getFrames().stream()
+                .limit(FRAMES)
+                .map(PinnedThreadRecorder::frame)
+                .collect(Collectors.joining(" <- "));
+        return event.getDuration().toMillis() + "ms at " + frames;
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+}
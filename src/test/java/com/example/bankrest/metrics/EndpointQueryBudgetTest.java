@@ -0,0 +1,184 @@
+package com.example.bankrest.metrics;
+
+import com.example.bankrest.EmbeddedPostgresTest;
+import com.example.bankrest.cache.CardResponseCache;
+import com.example.bankrest.dto.CreateCardRequest;
+import com.example.bankrest.service.CardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Statement budget of each endpoint on Postgres, through the full filter chain with real services
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointQueryBudgetTest extends EmbeddedPostgresTest {
+
+    private static final String USERNAME = "endpoint-budget";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardResponseCache cardResponseCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long fromCardId;
+    private Long toCardId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = jdbcTemplate.queryForList("SELECT id FROM users WHERE username = ?", Long.class, USERNAME)
+                .stream().findFirst()
+                .orElseGet(() -> jdbcTemplate.queryForObject("INSERT INTO users (username, password, email, role) " +
+                        "VALUES (?, 'unused', ?, 'USER') RETURNING id", Long.class, USERNAME, USERNAME + "@test.local"));
+
+        Authentication testUser = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        try {
+            fromCardId = createCard("100.00");
+            toCardId = createCard("0.00");
+        } finally {
+            SecurityContextHolder.getContext().setAuthentication(testUser);
+        }
+        // A cached card would answer without any SQL
+        cardResponseCache.evictAll();
+    }
+
+    @Test
+    @MaxQueries(2)
+    @WithMockUser(username = USERNAME, roles = "USER")
+    void getMyCards_WithinBudget() throws Exception {
+        mockMvc.perform(get("/api/cards/my"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxQueries(2)
+    @WithMockUser(username = USERNAME, roles = "USER")
+    void getCard_WithinBudget() throws Exception {
+        mockMvc.perform(get("/api/cards/{id}", fromCardId))
+                .andExpect(status().isOk());
+    }
+
+    // A matching If-None-Match is answered from the version query alone
+    @Test
+    @MaxQueries(2)
+    @WithMockUser(username = USERNAME, roles = "USER")
+    void getCard_NotModified_RunsVersionQueryOnly() throws Exception {
+        String eTag = mockMvc.perform(get("/api/cards/{id}", fromCardId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        cardResponseCache.evictAll();
+
+        MvcResult result = mockMvc.perform(get("/api/cards/{id}", fromCardId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andReturn();
+
+        assertEquals(1L, result.getRequest().getAttribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE));
+    }
+
+    @Test
+    @MaxQueries(2)
+    @WithMockUser(username = USERNAME, roles = "USER")
+    void getMyCards_NotModified_RunsVersionQueryOnly() throws Exception {
+        String eTag = mockMvc.perform(get("/api/cards/my"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        cardResponseCache.evictAll();
+
+        MvcResult result = mockMvc.perform(get("/api/cards/my").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertEquals(1L, result.getRequest().getAttribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE));
+    }
+
+    // Page, count and ledger balances
+    @Test
+    @MaxQueries(3)
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getAllCards_WithinBudget() throws Exception {
+        mockMvc.perform(get("/api/cards").param("ownerId", ownerId.toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxQueries(6)
+    @WithMockUser(username = USERNAME, roles = "USER")
+    void getStatement_WithinBudget() throws Exception {
+        mockMvc.perform(get("/api/cards/{id}/statement", fromCardId).param("month", YearMonth.now().toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxQueries(4)
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void blockCard_WithinBudget() throws Exception {
+        mockMvc.perform(put("/api/cards/{id}/block", fromCardId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxQueries(11)
+    @WithMockUser(username = USERNAME, roles = "USER")
+    void transfer_WithinBudget() throws Exception {
+        mockMvc.perform(post("/api/transfer").contentType(MediaType.APPLICATION_JSON).content(transferJson()))
+                .andExpect(status().isOk());
+    }
+
+    // The budget holds for each call: submitting runs 3 statements, the status poll 1
+    @Test
+    @MaxQueries(3)
+    @WithMockUser(username = USERNAME, roles = "USER")
+    void submitTransferAndGetStatus_WithinBudget() throws Exception {
+        String location = mockMvc.perform(post("/api/transfer/async")
+                        .contentType(MediaType.APPLICATION_JSON).content(transferJson()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    private String transferJson() {
+        return "{\"fromCardId\":" + fromCardId + ",\"toCardId\":" + toCardId + ",\"amount\":10.00}";
+    }
+
+    private Long createCard(String initialBalance) {
+        CreateCardRequest request = new CreateCardRequest();
+        request.setOwnerId(ownerId);
+        request.setInitialBalance(new BigDecimal(initialBalance));
+        return cardService.createCard(request).getId();
+    }
+}
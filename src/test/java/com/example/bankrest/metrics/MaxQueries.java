@@ -0,0 +1,26 @@
+package com.example.bankrest.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails any MockMvc call in the annotated test that runs more than {@link #value()}
+ * SQL statements, as counted by {@link QueryBudgetFilter}.
+ * <p>
+ * Put it on the test class; a method-level annotation overrides the class budget.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(QueryBudgetExtension.class)
+@Import(QueryBudgetExtension.MockMvcBudgetCheck.class)
+public @interface MaxQueries {
+
+    int value();
+}
@@ -0,0 +1,61 @@
+package com.example.bankrest.metrics;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.ConfigurableMockMvcBuilder;
+
+/**
+ * JUnit side of {@link MaxQueries}: holds the budget of the running test, which
+ * {@link MockMvcBudgetCheck} compares with the statement count of every MockMvc call.
+ */
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ThreadLocal<Integer> BUDGET = new ThreadLocal<>();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxQueries.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxQueries.class))
+                .ifPresent(maxQueries -> BUDGET.set(maxQueries.value()));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        BUDGET.remove();
+    }
+
+    static void verify(MvcResult result) {
+        Integer budget = BUDGET.get();
+        if (budget == null) {
+            return;
+        }
+        MockHttpServletRequest request = result.getRequest();
+        Object queries = request.getAttribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE);
+        if (queries == null) {
+            throw new AssertionError("No query count for " + request.getMethod() + " " + request.getRequestURI()
+                    + ": QueryBudgetFilter is not in the MockMvc filter chain");
+        }
+        if ((Long) queries > budget) {
+            throw new AssertionError("Expected at most " + budget + " SQL statements for " + request.getMethod()
+                    + " " + request.getRequestURI() + " but " + queries + " were executed");
+        }
+    }
+
+    /**
+     * Registers the check on the auto-configured MockMvc; imported by {@link MaxQueries}.
+     */
+    @TestComponent
+    static class MockMvcBudgetCheck implements MockMvcBuilderCustomizer {
+
+        @Override
+        public void customize(ConfigurableMockMvcBuilder<?> builder) {
+            builder.alwaysDo(QueryBudgetExtension::verify);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bankrest.metrics;
+
+import com.example.bankrest.cache.CardResponseCache;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.User;
+import com.example.bankrest.repository.CardRepository;
+import com.example.bankrest.repository.UserRepository;
+import com.example.bankrest.util.CardNumberEncryption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Real H2 queries through the full filter chain; no test transaction, so nothing is served from it
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@MaxQueries(3)
+class QueryBudgetFilterTest {
+
+    private static final int CARDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardNumberEncryption cardEncryption;
+
+    @Autowired
+    private CardResponseCache cardResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("budgetuser");
+        user.setEmail("budgetuser@example.com");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        for (int i = 0; i < CARDS; i++) {
+            Card card = new Card();
+            card.setEncryptedCardNumber(cardEncryption.encrypt("400000000000000" + i));
+            card.setOwner(user);
+            card.setExpiryDate(LocalDate.now().plusYears(3));
+            card.setStatus(Card.CardStatus.ACTIVE);
+            card.setBalance(new BigDecimal("100.00"));
+            cardRepository.save(card);
+        }
+        // A cached card list would answer without any SQL
+        cardResponseCache.evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = "budgetuser", roles = "USER")
+    void getMyCards_QueryCountDoesNotGrowWithCards() throws Exception {
+        // Act & Assert: user lookup + cards by owner, not one query per card
+        mockMvc.perform(get("/api/cards/my"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CARDS))
+                .andExpect(header().exists(QueryBudgetFilter.QUERY_COUNT_HEADER))
+                .andExpect(header().exists(QueryBudgetFilter.QUERY_TIME_HEADER));
+    }
+
+    @Test
+    @MaxQueries(0)
+    @WithMockUser(username = "budgetuser", roles = "USER")
+    void overBudget_FailsTheMockMvcCall() {
+        // Act
+        AssertionError error = assertThrows(AssertionError.class, () -> mockMvc.perform(get("/api/cards/my")));
+
+        // Assert
+        assertTrue(error.getMessage().startsWith("Expected at most 0 SQL statements for GET /api/cards/my"));
+    }
+}
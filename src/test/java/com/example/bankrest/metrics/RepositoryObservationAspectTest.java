@@ -0,0 +1,78 @@
+package com.example.bankrest.metrics;
+
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.repository.CardRepository;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RepositoryObservationAspectTest {
+
+    private final List<Observation.Context> stopped = new ArrayList<>();
+    private CardRepository target;
+    private CardRepository cardRepository;
+
+    @BeforeEach
+    void setUp() {
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+        });
+
+        target = mock(CardRepository.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new RepositoryObservationAspect(observationRegistry));
+        cardRepository = proxyFactory.getProxy();
+    }
+
+    @Test
+    void inheritedMethod_TaggedWithApplicationRepository() {
+        // Arrange
+        Card card = new Card();
+        when(target.findById(1L)).thenReturn(Optional.of(card));
+
+        // Act
+        Optional<Card> result = cardRepository.findById(1L);
+
+        // Assert
+        assertSame(card, result.orElseThrow());
+        assertEquals(1, stopped.size());
+        Observation.Context context = stopped.get(0);
+        assertEquals(RepositoryObservationAspect.OBSERVATION_NAME, context.getName());
+        assertEquals("CardRepository#findById", context.getContextualName());
+        assertEquals(KeyValue.of("repository", "CardRepository"), context.getLowCardinalityKeyValue("repository"));
+        assertEquals(KeyValue.of("method", "findById"), context.getLowCardinalityKeyValue("method"));
+        assertNull(context.getError());
+    }
+
+    @Test
+    void failingCall_RecordsErrorAndRethrows() {
+        // Arrange
+        IllegalStateException failure = new IllegalStateException("connection lost");
+        when(target.findByOwnerId(7L)).thenThrow(failure);
+
+        // Act & Assert
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> cardRepository.findByOwnerId(7L)));
+        assertEquals(1, stopped.size());
+        assertSame(failure, stopped.get(0).getError());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankrest.metrics;
+
+import com.example.bankrest.exception.CardNotActiveException;
+import com.example.bankrest.exception.CardNotFoundException;
+import com.example.bankrest.exception.InsufficientFundsException;
+import com.example.bankrest.exception.UnauthorizedCardAccessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransferMetrics transferMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transferMetrics = new TransferMetrics(meterRegistry);
+    }
+
+    @Test
+    void registersEveryOutcomeUpFront() {
+        // Assert
+        assertEquals(TransferMetrics.Outcome.values().length, meterRegistry.find("cards.transfers").counters().size());
+        assertEquals(0.0, count("success"));
+    }
+
+    @Test
+    void recordFailure_MapsExceptionTypeToOutcome() {
+        // Act
+        transferMetrics.recordSuccess();
+        transferMetrics.recordFailure(new InsufficientFundsException());
+        transferMetrics.recordFailure(new CardNotActiveException("Source card is not active"));
+        transferMetrics.recordFailure(new UnauthorizedCardAccessException("You can only transfer between your own cards"));
+        transferMetrics.recordFailure(new CardNotFoundException(7L));
+        transferMetrics.recordFailure(new IllegalArgumentException("Transfer amount must be positive"));
+        transferMetrics.recordFailure(new IllegalStateException("boom"));
+
+        // Assert
+        assertEquals(1.0, count("success"));
+        assertEquals(1.0, count("insufficient_funds"));
+        assertEquals(1.0, count("card_not_active"));
+        assertEquals(1.0, count("unauthorized"));
+        assertEquals(1.0, count("card_not_found"));
+        assertEquals(1.0, count("invalid_request"));
+        assertEquals(1.0, count("error"));
+    }
+
+    @Test
+    void recordFailure_NeverAddsTagValues() {
+        // Act
+        transferMetrics.recordFailure(new CardNotFoundException(1L));
+        transferMetrics.recordFailure(new CardNotFoundException(2L));
+
+        // Assert
+        assertEquals(TransferMetrics.Outcome.values().length, meterRegistry.find("cards.transfers").counters().size());
+        assertEquals(2.0, count("card_not_found"));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("cards.transfers").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.bankrest.outbox;
+
+import com.example.bankrest.entity.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPublisherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private InMemoryOutboxSink sink;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        sink = new InMemoryOutboxSink();
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new OutboxPublisher(jdbcTemplate, namedJdbcTemplate, transactionTemplate, sink, meterRegistry, 3);
+    }
+
+    @Test
+    void publishBatch_PublishesInIdOrderAndDeletesRows() {
+        // Arrange
+        claim(event(1L, 7L), event(2L, 8L), event(3L, 7L));
+
+        // Act
+        int published = publisher.publishBatch();
+
+        // Assert
+        assertEquals(3, published);
+        assertEquals(List.of(1L, 2L, 3L), sink.getPublished().stream().map(OutboxEvent::getId).toList());
+        verify(namedJdbcTemplate).update(eq(OutboxPublisher.DELETE_SQL),
+                argThat((SqlParameterSource params) -> List.of(1L, 2L, 3L).equals(params.getValue("ids"))));
+        assertEquals(3.0, meterRegistry.get("outbox.published").counter().count());
+    }
+
+    @Test
+    void publishBatch_EarlierRowHeldElsewhere_LeavesCardForLaterPoll() throws Exception {
+        // Arrange: row 4 of card 7 is claimed by another node
+        claim(event(2L, 8L), event(5L, 7L), event(6L, 7L));
+        ResultSet held = mock(ResultSet.class);
+        when(held.getLong("card_id")).thenReturn(7L);
+        when(held.getLong("id")).thenReturn(4L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(held);
+            return null;
+        }).when(namedJdbcTemplate).query(eq(OutboxPublisher.HELD_ELSEWHERE_SQL), any(SqlParameterSource.class),
+                any(RowCallbackHandler.class));
+
+        // Act
+        int published = publisher.publishBatch();
+
+        // Assert
+        assertEquals(1, published);
+        assertEquals(List.of(2L), sink.getPublished().stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    void publishBatch_SinkFails_RowsNotDeleted() {
+        // Arrange
+        OutboxSink failing = events -> {
+            throw new IllegalStateException("sink down");
+        };
+        publisher = new OutboxPublisher(jdbcTemplate, namedJdbcTemplate, transactionTemplate, failing, meterRegistry, 3);
+        claim(event(1L, 7L));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> publisher.publishBatch());
+        verify(namedJdbcTemplate, never()).update(eq(OutboxPublisher.DELETE_SQL), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void poll_FullBatch_PollsAgainUntilDrained() {
+        // Arrange
+        when(jdbcTemplate.queryForList(OutboxPublisher.OLDEST_SQL, Timestamp.class)).thenReturn(List.of());
+        when(transactionTemplate.execute(any())).thenReturn(3, 3, 1);
+
+        // Act
+        publisher.poll();
+
+        // Assert
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void poll_BatchFails_CountsFailure() {
+        // Arrange
+        when(jdbcTemplate.queryForList(OutboxPublisher.OLDEST_SQL, Timestamp.class)).thenReturn(List.of());
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("sink down"));
+
+        // Act
+        publisher.poll();
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("outbox.publish.failures").counter().count());
+    }
+
+    @Test
+    void updateLag_AgeOfOldestUnpublishedRow() {
+        // Arrange
+        when(jdbcTemplate.queryForList(OutboxPublisher.OLDEST_SQL, Timestamp.class))
+                .thenReturn(List.of(Timestamp.valueOf(NOW.minusSeconds(12))), List.of());
+
+        // Act & Assert
+        publisher.updateLag(NOW);
+        assertEquals(12.0, meterRegistry.get("outbox.lag").gauge().value());
+        publisher.updateLag(NOW);
+        assertEquals(0.0, meterRegistry.get("outbox.lag").gauge().value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claim(OutboxEvent... events) {
+        when(jdbcTemplate.query(eq(OutboxPublisher.CLAIM_SQL), any(RowMapper.class), eq(3)))
+                .thenReturn(List.of(events));
+    }
+
+    private OutboxEvent event(Long id, Long cardId) {
+        return new OutboxEvent(id, OutboxEvent.EventType.TRANSFER_DEBITED, cardId, "{}", NOW);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankrest.outbox;
+
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.Transaction;
+import com.example.bankrest.event.CardChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OutboxWriter outboxWriter;
+
+    @Test
+    void onCardChanged_Blocked_WritesCardEvent() {
+        // Act
+        outboxWriter.onCardChanged(new CardChangedEvent(7L, "john", CardChangedEvent.ChangeType.BLOCKED));
+
+        // Assert
+        verify(jdbcTemplate).update(eq(OutboxWriter.APPEND_SQL), eq("CARD_BLOCKED"), eq(7L),
+                eq("{\"cardId\":7,\"ownerUsername\":\"john\"}"), any());
+    }
+
+    @Test
+    void onCardChanged_BalanceChanged_NotWritten() {
+        // Act
+        outboxWriter.onCardChanged(new CardChangedEvent(7L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void recordTransfers_OneRowPerCardInOneBatch() {
+        // Act
+        outboxWriter.recordTransfers(List.of(transfer(10L, 1L, 2L, "100.00"), transfer(11L, 2L, 3L, "5.50")));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(OutboxWriter.APPEND_SQL), rows.capture());
+        assertEquals(4, rows.getValue().size());
+        assertEquals("TRANSFER_DEBITED", rows.getValue().get(0)[0]);
+        assertEquals(1L, rows.getValue().get(0)[1]);
+        assertEquals("TRANSFER_CREDITED", rows.getValue().get(1)[0]);
+        assertEquals(2L, rows.getValue().get(1)[1]);
+        assertEquals("{\"transferId\":10,\"fromCardId\":1,\"toCardId\":2,\"amount\":100.00}", rows.getValue().get(1)[2]);
+    }
+
+    @Test
+    void recordTransfers_NothingCompleted_NoBatch() {
+        // Act
+        outboxWriter.recordTransfers(List.of());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private Transaction transfer(Long id, Long fromCardId, Long toCardId, String amount) {
+        Card from = new Card();
+        from.setId(fromCardId);
+        Card to = new Card();
+        to.setId(toCardId);
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setFromCard(from);
+        transaction.setToCard(to);
+        transaction.setAmount(new BigDecimal(amount));
+        return transaction;
+    }
+}
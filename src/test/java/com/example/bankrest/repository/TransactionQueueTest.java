@@ -0,0 +1,72 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.EmbeddedPostgresTest;
+import com.example.bankrest.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// findQueued on Postgres: one source card with a long queue must not fill the dispatcher's page
+@SpringBootTest
+class TransactionQueueTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findQueued_HotSourceCard_OtherCardsStillInFirstPage() {
+        // Arrange: 150 transfers from the hot card, queued before one from each of three other cards
+        Long ownerId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email, role) " +
+                "VALUES ('queue-fairness', 'unused', 'queue-fairness@test.local', 'USER') RETURNING id", Long.class);
+        Long hotCardId = insertCard(ownerId, "queue-hot");
+        Long destinationId = insertCard(ownerId, "queue-destination");
+        List<Long> otherCardIds = List.of(insertCard(ownerId, "queue-1"), insertCard(ownerId, "queue-2"),
+                insertCard(ownerId, "queue-3"));
+        for (int i = 0; i < 150; i++) {
+            insertPending(hotCardId, destinationId, ownerId);
+        }
+        List<Long> otherTransferIds = new ArrayList<>();
+        for (Long cardId : otherCardIds) {
+            otherTransferIds.add(insertPending(cardId, destinationId, ownerId));
+        }
+
+        // Act
+        List<TransactionRepository.QueuedTransfer> page = transactionRepository.findQueued(
+                Transaction.TransactionStatus.PENDING, PageRequest.of(0, 100));
+
+        // Assert: first round is the oldest transfer of each card, the hot card takes the rest
+        assertEquals(100, page.size());
+        List<Long> firstRound = page.subList(0, 4).stream().map(TransactionRepository.QueuedTransfer::getFromCardId).toList();
+        assertEquals(hotCardId, firstRound.get(0));
+        assertEquals(otherCardIds, firstRound.subList(1, 4));
+        assertEquals(otherTransferIds, page.subList(1, 4).stream().map(TransactionRepository.QueuedTransfer::getId).toList());
+        List<Long> hotIds = page.stream()
+                .filter(queued -> hotCardId.equals(queued.getFromCardId()))
+                .map(TransactionRepository.QueuedTransfer::getId)
+                .toList();
+        assertEquals(97, hotIds.size());
+        assertEquals(hotIds.stream().sorted().toList(), hotIds);
+    }
+
+    // No opening postings behind these cards, so they start empty to keep the ledger reconciled
+    private Long insertCard(Long ownerId, String number) {
+        return jdbcTemplate.queryForObject("INSERT INTO cards (encrypted_card_number, owner_id, expiry_date, status, balance) " +
+                "VALUES (?, ?, CURRENT_DATE + 365, 'ACTIVE', 0.00) RETURNING id", Long.class, number, ownerId);
+    }
+
+    private Long insertPending(Long fromCardId, Long toCardId, Long ownerId) {
+        return jdbcTemplate.queryForObject("INSERT INTO transactions (from_card_id, to_card_id, from_owner_id, " +
+                "to_owner_id, amount, status) VALUES (?, ?, ?, ?, 1.00, 'PENDING') RETURNING id",
+                Long.class, fromCardId, toCardId, ownerId, ownerId);
+    }
+}
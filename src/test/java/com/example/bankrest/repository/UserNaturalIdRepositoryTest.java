@@ -0,0 +1,66 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.entity.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The lookup runs outside any transaction, as from the JWT filter
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.bankrest.repository.UserNaturalIdRepositoryTest$ReadOnlyRecorder")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserNaturalIdRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("routeduser");
+        user.setEmail("routeduser@example.com");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        userRepository.save(user);
+        ReadOnlyRecorder.READ_ONLY.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByUsername_OutsideTransaction_NotReadOnlySoRoutedToPrimary() {
+        // Act
+        assertTrue(userRepository.findByUsername("routeduser").isPresent());
+
+        // Assert
+        assertEquals(List.of(false), ReadOnlyRecorder.READ_ONLY);
+    }
+
+    // Records whether each statement ran in a read-only transaction, the flag the routing data source reads
+    public static class ReadOnlyRecorder implements StatementInspector {
+
+        static final List<Boolean> READ_ONLY = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            READ_ONLY.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return sql;
+        }
+    }
+}
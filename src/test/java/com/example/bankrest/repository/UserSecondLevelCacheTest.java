@@ -0,0 +1,109 @@
+package com.example.bankrest.repository;
+
+import com.example.bankrest.config.HibernateCacheConfig;
+import com.example.bankrest.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each repository call commits on its own, as in the application
+@DataJpaTest(properties = "users.cache.enabled=true")
+@ActiveProfiles("test")
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("cacheduser");
+        user.setEmail("cacheduser@example.com");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_SecondLookup_HitsCache() {
+        // Act
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        // Assert
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findByUsername_SecondLookup_HitsNaturalIdCache() {
+        // Act
+        userRepository.findByUsername("cacheduser");
+        User found = userRepository.findByUsername("cacheduser").orElseThrow();
+
+        // Assert
+        assertEquals(user.getId(), found.getId());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void save_UpdatesCachedEntry() {
+        // Arrange
+        User cached = userRepository.findById(user.getId()).orElseThrow();
+        cached.setEmail("changed@example.com");
+
+        // Act
+        userRepository.save(cached);
+
+        // Assert
+        assertEquals("changed@example.com", userRepository.findById(user.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void delete_EvictsCachedEntry() {
+        // Arrange
+        userRepository.findByUsername("cacheduser");
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+
+        // Act
+        userRepository.deleteById(user.getId());
+
+        // Assert
+        statistics.clear();
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+        assertTrue(userRepository.findByUsername("cacheduser").isEmpty());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getNaturalIdCacheHitCount());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.EmbeddedPostgresTest;
+import com.example.bankrest.dto.CreateCardRequest;
+import com.example.bankrest.repository.CardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Credits into a sharded card while its shards are folded, on real Postgres row locks
+@SpringBootTest
+class CardBalanceShardConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final String USERNAME = "shard-concurrency";
+    private static final int SOURCES = 8;
+    private static final int TRANSFERS_PER_SOURCE = 25;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardBalanceShardService balanceShardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void transfersIntoShardedCard_WhileFolding_NoDeadlockAndNothingLost() throws Exception {
+        // Arrange
+        Long ownerId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email, role) " +
+                "VALUES (?, 'unused', ?, 'USER') RETURNING id", Long.class, USERNAME, USERNAME + "@test.local");
+        authenticate("admin", "ROLE_ADMIN");
+        Long hotCardId = createCard(ownerId, "0.00");
+        List<Long> sourceIds = new ArrayList<>();
+        for (int i = 0; i < SOURCES; i++) {
+            sourceIds.add(createCard(ownerId, "1000.00"));
+        }
+        cardService.setBalanceShards(hotCardId, 4);
+
+        // Act: every source sends to the hot card while a folder thread folds it in a loop
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean transfersDone = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(SOURCES + 1);
+        try {
+            Future<?> folder = executor.submit(() -> {
+                await(start);
+                while (!transfersDone.get()) {
+                    try {
+                        balanceShardService.fold(hotCardId);
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                }
+            });
+            List<Future<?>> senders = new ArrayList<>();
+            for (Long sourceId : sourceIds) {
+                senders.add(executor.submit(() -> {
+                    authenticate(USERNAME, "ROLE_USER");
+                    await(start);
+                    for (int i = 0; i < TRANSFERS_PER_SOURCE; i++) {
+                        try {
+                            cardService.transferBetweenOwnCards(sourceId, hotCardId, BigDecimal.ONE);
+                        } catch (RuntimeException e) {
+                            failures.add(e);
+                        }
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> sender : senders) {
+                sender.get(2, TimeUnit.MINUTES);
+            }
+            transfersDone.set(true);
+            folder.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertTrue(failures.isEmpty(), () -> "Failures: " + failures);
+        balanceShardService.fold(hotCardId);
+        BigDecimal expected = BigDecimal.valueOf(SOURCES * TRANSFERS_PER_SOURCE);
+        assertEquals(0, expected.compareTo(cardRepository.findBalanceById(hotCardId)));
+        authenticate(USERNAME, "ROLE_USER");
+        assertEquals(0, expected.compareTo(cardService.getCardById(hotCardId).getBalance()));
+    }
+
+    private Long createCard(Long ownerId, String initialBalance) {
+        CreateCardRequest request = new CreateCardRequest();
+        request.setOwnerId(ownerId);
+        request.setInitialBalance(new BigDecimal(initialBalance));
+        return cardService.createCard(request).getId();
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.CardBalanceShard;
+import com.example.bankrest.repository.CardBalanceShardRepository;
+import com.example.bankrest.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardBalanceShardServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardBalanceShardRepository shardRepository;
+
+    @Mock
+    private CardBalanceSnapshotService balanceSnapshotService;
+
+    @InjectMocks
+    private CardBalanceShardService shardService;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(shardService, "maxShards", 64);
+        card = new Card();
+        card.setId(5L);
+        card.setBalance(new BigDecimal("100.00"));
+        card.setBalanceShards(4);
+    }
+
+    @Test
+    void credit_PicksShardBySourceCard() {
+        // Arrange
+        when(shardRepository.credit(eq(5L), eq(CardBalanceShardService.shardFor(9L, 4)), eq(new BigDecimal("30.00")), any()))
+                .thenReturn(1);
+
+        // Act & Assert
+        assertTrue(shardService.credit(card, 9L, new BigDecimal("30.00"), LocalDateTime.now()));
+    }
+
+    @Test
+    void shardFor_SpreadsSourcesOverAllShards() {
+        // Act
+        long used = LongStream.range(1, 100)
+                .map(fromCardId -> CardBalanceShardService.shardFor(fromCardId, 8))
+                .distinct()
+                .count();
+
+        // Assert
+        assertEquals(8, used);
+    }
+
+    @Test
+    void fold_MovesShardsIntoBalanceAndRollsUpTheirCredits() {
+        // Arrange
+        List<CardBalanceShard> shards = List.of(shard(0, "20.00", 2), shard(1, "0.00", 0), shard(2, "5.50", 1));
+        when(shardRepository.lockByCardId(5L)).thenReturn(shards);
+        when(cardRepository.findBalanceById(5L)).thenReturn(new BigDecimal("125.50"));
+
+        // Act
+        BigDecimal balance = shardService.fold(card);
+
+        // Assert
+        assertEquals(new BigDecimal("125.50"), balance);
+        InOrder inOrder = inOrder(cardRepository, shardRepository);
+        inOrder.verify(cardRepository).lockByIdIn(List.of(5L));
+        inOrder.verify(shardRepository).lockByCardId(5L);
+        verify(cardRepository).credit(eq(5L), eq(new BigDecimal("25.50")), any());
+        verify(balanceSnapshotService).recordCredits(5L, new BigDecimal("100.00"), new BigDecimal("25.50"), 3);
+        assertTrue(shards.stream().allMatch(shard -> shard.getBalance().signum() == 0 && shard.getCreditCount() == 0));
+    }
+
+    @Test
+    void fold_NoCreditsSinceLastFold_LeavesBalanceAlone() {
+        // Arrange
+        when(shardRepository.lockByCardId(5L)).thenReturn(List.of(shard(0, "0.00", 0)));
+
+        // Act
+        BigDecimal balance = shardService.fold(card);
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), balance);
+        verify(cardRepository, never()).credit(any(), any(), any());
+        verifyNoInteractions(balanceSnapshotService);
+    }
+
+    @Test
+    void reshard_Shrinks_FoldsAndDropsHigherShards() {
+        // Arrange
+        List<CardBalanceShard> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shards.add(shard(i, "10.00", 1));
+        }
+        when(shardRepository.lockByCardId(5L)).thenReturn(shards);
+        when(cardRepository.findBalanceById(5L)).thenReturn(new BigDecimal("140.00"));
+
+        // Act
+        shardService.reshard(card, 2);
+
+        // Assert
+        verify(cardRepository).credit(eq(5L), eq(new BigDecimal("40.00")), any());
+        verify(shardRepository).delete(shards.get(2));
+        verify(shardRepository).delete(shards.get(3));
+        verify(shardRepository, never()).save(any());
+        verify(cardRepository).updateBalanceShards(eq(5L), eq(2), any());
+        assertTrue(shardService.isSharded(5L));
+    }
+
+    @Test
+    void reshard_FromUnsharded_CreatesEmptyShards() {
+        // Arrange
+        card.setBalanceShards(0);
+        when(shardRepository.lockByCardId(5L)).thenReturn(List.of());
+
+        // Act
+        shardService.reshard(card, 3);
+
+        // Assert
+        verify(shardRepository, times(3)).save(argThat(shard ->
+                shard.getCardId().equals(5L) && shard.getBalance().signum() == 0));
+        verify(cardRepository).updateBalanceShards(eq(5L), eq(3), any());
+    }
+
+    @Test
+    void reshard_OutOfRange_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> shardService.reshard(card, 65));
+        assertThrows(IllegalArgumentException.class, () -> shardService.reshard(card, -1));
+        verifyNoInteractions(shardRepository);
+    }
+
+    private CardBalanceShard shard(int shard, String balance, int creditCount) {
+        return new CardBalanceShard(5L, shard, new BigDecimal(balance), creditCount, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.dto.CardStatementResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.CardDailyBalance;
+import com.example.bankrest.repository.CardBalanceShardRepository;
+import com.example.bankrest.repository.CardDailyBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardBalanceSnapshotServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2026, 9);
+
+    @Mock
+    private CardDailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private CardBalanceShardRepository shardRepository;
+
+    @InjectMocks
+    private CardBalanceSnapshotService snapshotService;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        card = new Card();
+        card.setId(1L);
+        card.setBalance(new BigDecimal("300.00"));
+    }
+
+    @Test
+    void recordDebit_AppliesMovementForToday() {
+        // Act
+        snapshotService.recordDebit(1L, new BigDecimal("100.00"), new BigDecimal("40.00"));
+
+        // Assert
+        verify(dailyBalanceRepository).applyMovement(1L, LocalDate.now(), new BigDecimal("100.00"),
+                BigDecimal.ZERO, new BigDecimal("40.00"), 1);
+    }
+
+    @Test
+    void getMonthlyStatement_UsesSnapshotsAroundPeriod() {
+        // Arrange
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(1L, LocalDate.of(2026, 8, 31)))
+                .thenReturn(Optional.of(snapshot(LocalDate.of(2026, 8, 20), "50.00", "120.00")));
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(1L, LocalDate.of(2026, 9, 30)))
+                .thenReturn(Optional.of(snapshot(LocalDate.of(2026, 9, 15), "150.00", "170.00")));
+        when(dailyBalanceRepository.sumMovements(1L, LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 30)))
+                .thenReturn(totals("80.00", "30.00", 3L));
+
+        // Act
+        CardStatementResponse statement = snapshotService.getMonthlyStatement(card, MONTH);
+
+        // Assert
+        assertEquals(LocalDate.of(2026, 9, 1), statement.getPeriodStart());
+        assertEquals(LocalDate.of(2026, 9, 30), statement.getPeriodEnd());
+        assertEquals(new BigDecimal("120.00"), statement.getOpeningBalance());
+        assertEquals(new BigDecimal("170.00"), statement.getClosingBalance());
+        assertEquals(new BigDecimal("80.00"), statement.getTotalCredits());
+        assertEquals(new BigDecimal("30.00"), statement.getTotalDebits());
+        assertEquals(3L, statement.getTransactionCount());
+    }
+
+    @Test
+    void getMonthlyStatement_NoEarlierSnapshot_UsesOpeningOfNextSnapshot() {
+        // Arrange
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(eq(1L), any()))
+                .thenReturn(Optional.empty());
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateGreaterThanOrderByBalanceDateAsc(eq(1L), any()))
+                .thenReturn(Optional.of(snapshot(LocalDate.of(2026, 10, 2), "200.00", "300.00")));
+        when(dailyBalanceRepository.sumMovements(eq(1L), any(), any()))
+                .thenReturn(totals("0", "0", 0L));
+
+        // Act
+        CardStatementResponse statement = snapshotService.getMonthlyStatement(card, MONTH);
+
+        // Assert
+        assertEquals(new BigDecimal("200.00"), statement.getOpeningBalance());
+        assertEquals(new BigDecimal("200.00"), statement.getClosingBalance());
+    }
+
+    @Test
+    void getMonthlyStatement_NoSnapshots_UsesCurrentBalance() {
+        // Arrange
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(eq(1L), any()))
+                .thenReturn(Optional.empty());
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateGreaterThanOrderByBalanceDateAsc(eq(1L), any()))
+                .thenReturn(Optional.empty());
+        when(dailyBalanceRepository.sumMovements(eq(1L), any(), any()))
+                .thenReturn(totals("0", "0", 0L));
+
+        // Act
+        CardStatementResponse statement = snapshotService.getMonthlyStatement(card, MONTH);
+
+        // Assert
+        assertEquals(new BigDecimal("300.00"), statement.getOpeningBalance());
+        assertEquals(new BigDecimal("300.00"), statement.getClosingBalance());
+        assertEquals(0L, statement.getTransactionCount());
+    }
+
+    @Test
+    void getMonthlyStatement_MonthBeforeCardCreated_ZeroBalances() {
+        // Arrange
+        card.setCreatedAt(LocalDateTime.of(2026, 10, 5, 9, 0));
+        when(dailyBalanceRepository.sumMovements(eq(1L), any(), any()))
+                .thenReturn(totals("0", "0", 0L));
+
+        // Act
+        CardStatementResponse statement = snapshotService.getMonthlyStatement(card, MONTH);
+
+        // Assert
+        assertEquals(BigDecimal.ZERO, statement.getOpeningBalance());
+        assertEquals(BigDecimal.ZERO, statement.getClosingBalance());
+        verify(dailyBalanceRepository, never()).findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(any(), any());
+    }
+
+    @Test
+    void getMonthlyStatement_CurrentMonthWithoutSnapshot_ClosesWithShardCredits() {
+        // Arrange
+        YearMonth month = YearMonth.now();
+        card.setBalanceShards(4);
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(1L, month.atDay(1).minusDays(1)))
+                .thenReturn(Optional.empty());
+        when(dailyBalanceRepository.findFirstByCardIdAndBalanceDateGreaterThanOrderByBalanceDateAsc(1L, month.atDay(1).minusDays(1)))
+                .thenReturn(Optional.empty());
+        when(shardRepository.sumBalanceByCardId(1L)).thenReturn(new BigDecimal("25.00"));
+        when(dailyBalanceRepository.sumMovements(eq(1L), any(), any()))
+                .thenReturn(totals("0", "0", 0L));
+
+        // Act
+        CardStatementResponse statement = snapshotService.getMonthlyStatement(card, month);
+
+        // Assert
+        assertEquals(new BigDecimal("300.00"), statement.getOpeningBalance());
+        assertEquals(new BigDecimal("325.00"), statement.getClosingBalance());
+    }
+
+    private CardDailyBalance snapshot(LocalDate date, String opening, String closing) {
+        CardDailyBalance balance = new CardDailyBalance();
+        balance.setCardId(1L);
+        balance.setBalanceDate(date);
+        balance.setOpeningBalance(new BigDecimal(opening));
+        balance.setClosingBalance(new BigDecimal(closing));
+        return balance;
+    }
+
+    private CardDailyBalanceRepository.MovementTotals totals(String credits, String debits, Long count) {
+        return new CardDailyBalanceRepository.MovementTotals() {
+            @Override
+            public BigDecimal getTotalCredits() {
+                return new BigDecimal(credits);
+            }
+
+            @Override
+            public BigDecimal getTotalDebits() {
+                return new BigDecimal(debits);
+            }
+
+            @Override
+            public Long getTransactionCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.EmbeddedPostgresTest;
+import com.example.bankrest.dto.CreateCardRequest;
+import com.example.bankrest.exception.CardHasTransactionsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Deleting cards on Postgres, with the transfer recorded through the service
+@SpringBootTest
+class CardDeletionTest extends EmbeddedPostgresTest {
+
+    private static final String USERNAME = "card-deletion";
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deleteCard_ZeroBalanceWithTransfers_ThrowsAndKeepsCard() {
+        // Arrange
+        Long ownerId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email, role) " +
+                "VALUES (?, 'unused', ?, 'USER') RETURNING id", Long.class, USERNAME, USERNAME + "@test.local");
+        authenticate("admin", "ROLE_ADMIN");
+        Long fromId = createCard(ownerId, "25.00");
+        Long toId = createCard(ownerId, "0.00");
+        Long unusedId = createCard(ownerId, "0.00");
+        authenticate(USERNAME, "ROLE_USER");
+        cardService.transferBetweenOwnCards(fromId, toId, new BigDecimal("25.00"));
+
+        // Act & Assert
+        authenticate("admin", "ROLE_ADMIN");
+        assertThrows(CardHasTransactionsException.class, () -> cardService.deleteCard(fromId));
+        cardService.deleteCard(unusedId);
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM cards WHERE id = ?", Integer.class, fromId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM cards WHERE id = ?", Integer.class, unusedId));
+    }
+
+    private Long createCard(Long ownerId, String initialBalance) {
+        CreateCardRequest request = new CreateCardRequest();
+        request.setOwnerId(ownerId);
+        request.setInitialBalance(new BigDecimal(initialBalance));
+        return cardService.createCard(request).getId();
+    }
+
+    // A fresh context, as unit tests on this thread may leave a mocked one behind
+    private static void authenticate(String username, String role) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+        SecurityContextHolder.setContext(context);
+    }
+}
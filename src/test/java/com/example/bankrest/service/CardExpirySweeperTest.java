@@ -0,0 +1,110 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.event.CardChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardExpirySweeperTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CardExpirySweeper expirySweeper;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(expirySweeper, "chunkSize", 2);
+    }
+
+    @Test
+    void expireChunk_LockHeldByAnotherNode_SkipsUpdate() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(CardExpirySweeper.LOCK_SQL, Boolean.class)).thenReturn(false);
+
+        // Act
+        Integer expired = expirySweeper.expireChunk(TODAY);
+
+        // Assert
+        assertNull(expired);
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void expireChunk_PublishesExpiredEventPerCard() throws Exception {
+        // Arrange
+        when(jdbcTemplate.queryForObject(CardExpirySweeper.LOCK_SQL, Boolean.class)).thenReturn(true);
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(7L);
+        when(row.getString(2)).thenReturn("john");
+        when(jdbcTemplate.query(eq(CardExpirySweeper.EXPIRE_CHUNK_SQL), any(RowMapper.class), eq(Date.valueOf(TODAY)), eq(2)))
+                .thenAnswer(invocation -> {
+                    RowMapper<CardChangedEvent> mapper = invocation.getArgument(1);
+                    return List.of(mapper.mapRow(row, 0));
+                });
+
+        // Act
+        Integer expired = expirySweeper.expireChunk(TODAY);
+
+        // Assert
+        assertEquals(1, expired);
+        ArgumentCaptor<CardChangedEvent> event = ArgumentCaptor.forClass(CardChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(7L, event.getValue().getCardId());
+        assertEquals("john", event.getValue().getOwnerUsername());
+        assertEquals(CardChangedEvent.ChangeType.EXPIRED, event.getValue().getChangeType());
+    }
+
+    @Test
+    void expireCards_RunsChunksUntilOneIsNotFull() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenReturn(2, 2, 1);
+
+        // Act
+        expirySweeper.expireCards();
+
+        // Assert
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void expireCards_StopsWhenLockNotAcquired() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenReturn(null);
+
+        // Act
+        expirySweeper.expireCards();
+
+        // Assert
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.exception.CardBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardLocksTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardLocks cardLocks;
+    private ExecutorService otherThread;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardLocks = new CardLocks(meterRegistry, 16, Duration.ofMillis(200));
+        otherThread = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherThread.shutdownNow();
+    }
+
+    @Test
+    void lock_CardHeldByAnotherThread_ThrowsBusyAfterTimeout() throws Exception {
+        // Arrange
+        CountDownLatch release = holdInOtherThread(1L);
+
+        // Act & Assert
+        try {
+            assertThrows(CardBusyException.class, () -> cardLocks.lock(List.of(1L, 2L)));
+            assertEquals(1, meterRegistry.get("cards.lock.wait").tag("outcome", "timeout").timer().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void lock_TimedOut_ReleasesStripesAlreadyTaken() throws Exception {
+        // Arrange: card 2 is free and taken first by index, card 7 is held elsewhere
+        CountDownLatch release = holdInOtherThread(7L);
+        try {
+            assertThrows(CardBusyException.class, () -> cardLocks.lock(List.of(2L, 7L)));
+        } finally {
+            release.countDown();
+        }
+
+        // Act
+        Future<Boolean> free = otherThread.submit(() -> {
+            try (CardLocks.Held held = cardLocks.lock(List.of(2L))) {
+                return true;
+            }
+        });
+
+        // Assert
+        assertTrue(free.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void lock_WaitingThread_ShowsInQueueDepth() throws Exception {
+        // Arrange
+        CardLocks.Held held = cardLocks.lock(List.of(3L));
+        Future<?> waiter = otherThread.submit(() -> {
+            try (CardLocks.Held ignored = cardLocks.lock(List.of(3L))) {
+                return null;
+            }
+        });
+
+        // Act
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (cardLocks.queuedThreads() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("cards.lock.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("cards.lock.queue.depth.max").gauge().value());
+        held.close();
+        waiter.get(1, TimeUnit.SECONDS);
+        assertEquals(0, cardLocks.queuedThreads());
+    }
+
+    @Test
+    void stripeIndex_SequentialIds_DistinctStripes() {
+        // Act & Assert
+        assertNotEquals(cardLocks.stripeIndex(1L), cardLocks.stripeIndex(2L));
+        assertEquals(cardLocks.stripeIndex(1L), cardLocks.stripeIndex(17L));
+    }
+
+    @Test
+    void lock_NullIdsIgnored() {
+        // Act & Assert
+        assertDoesNotThrow(() -> cardLocks.lock(Arrays.asList(null, 4L)).close());
+    }
+
+    private CountDownLatch holdInOtherThread(Long cardId) throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        otherThread.submit(() -> {
+            try (CardLocks.Held held = cardLocks.lock(List.of(cardId))) {
+                locked.countDown();
+                release.await();
+            }
+            return null;
+        });
+        assertTrue(locked.await(1, TimeUnit.SECONDS));
+        return release;
+    }
+}
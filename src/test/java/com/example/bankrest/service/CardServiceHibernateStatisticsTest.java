@@ -0,0 +1,167 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.cache.CardResponseCache;
+import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.User;
+import com.example.bankrest.metrics.TransferMetrics;
+import com.example.bankrest.outbox.OutboxWriter;
+import com.example.bankrest.repository.CardRepository;
+import com.example.bankrest.repository.TransactionRepository;
+import com.example.bankrest.repository.UserRepository;
+import com.example.bankrest.util.CardNumberEncryption;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Service transactions run on their own (no test-managed transaction), so flushes are the real ones
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({CardService.class, CardNumberEncryption.class, CardResponseCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CardServiceHibernateStatisticsTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CardNumberEncryption cardEncryption;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Native upsert is Postgres-only
+    @MockitoBean
+    private CardBalanceSnapshotService balanceSnapshotService;
+
+    @MockitoBean
+    private TransferMetrics transferMetrics;
+
+    @MockitoBean
+    private CardBalanceShardService balanceShardService;
+
+    @MockitoBean
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private OutboxWriter outboxWriter;
+
+    private Statistics statistics;
+    private Card fromCard;
+    private Card toCard;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("statsuser");
+        user.setEmail("statsuser@example.com");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        fromCard = cardRepository.save(card(user, "4000000000000001", "1000.00"));
+        toCard = cardRepository.save(card(user, "4000000000000002", "500.00"));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "statsuser", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        transactionRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getCardById_ReadOnly_DoesNotFlush() {
+        // Act
+        CardResponse response = cardService.getCardById(fromCard.getId());
+
+        // Assert
+        assertEquals(new BigDecimal("1000.00"), response.getBalance());
+        assertEquals(0, statistics.getFlushCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(2, statistics.getEntityLoadCount()); // card + user
+    }
+
+    @Test
+    void getCardsByUser_ReadOnly_DoesNotFlush() {
+        // Act
+        List<CardResponse> cards = cardService.getCardsByUser();
+
+        // Assert
+        assertEquals(2, cards.size());
+        assertEquals(0, statistics.getFlushCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void transfer_UsesTargetedUpdates_NoEntityUpdates() {
+        // Act
+        cardService.transferBetweenOwnCards(fromCard.getId(), toCard.getId(), new BigDecimal("200.00"));
+
+        // Assert
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getEntityInsertCount()); // the transaction record
+        assertEquals(new BigDecimal("800.00"), cardRepository.findById(fromCard.getId()).orElseThrow().getBalance());
+        assertEquals(new BigDecimal("700.00"), cardRepository.findById(toCard.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void blockCard_UsesTargetedUpdate_NoEntityUpdates() {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        // Act
+        CardResponse response = cardService.blockCard(fromCard.getId());
+
+        // Assert
+        assertEquals(Card.CardStatus.BLOCKED, response.getStatus());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(Card.CardStatus.BLOCKED, cardRepository.findById(fromCard.getId()).orElseThrow().getStatus());
+    }
+
+    private Card card(User owner, String number, String balance) {
+        Card card = new Card();
+        card.setEncryptedCardNumber(cardEncryption.encrypt(number));
+        card.setOwner(owner);
+        card.setExpiryDate(LocalDate.now().plusYears(3));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal(balance));
+        return card;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.cache.CardResponseCache;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.Transaction;
+import com.example.bankrest.entity.User;
+import com.example.bankrest.exception.InsufficientFundsException;
+import com.example.bankrest.metrics.TransferMetrics;
+import com.example.bankrest.outbox.OutboxWriter;
+import com.example.bankrest.repository.CardRepository;
+import com.example.bankrest.repository.TransactionRepository;
+import com.example.bankrest.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Queued transfers run by PendingTransferProcessor, without a security context
+@ExtendWith(MockitoExtension.class)
+class CardServicePendingTransfersTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CardBalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private CardBalanceShardService balanceShardService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private CardResponseCache cardResponseCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransferMetrics transferMetrics;
+
+    @InjectMocks
+    private CardService cardService;
+
+    private Card fromCard;
+    private Card toCard;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUsername("testuser");
+
+        fromCard = card(1L, owner, "300.00");
+        toCard = card(2L, owner, "50.00");
+    }
+
+    @Test
+    void executePendingTransfers_CarriesBalanceForwardAndFailsOverdraft() {
+        // Arrange
+        Transaction first = pending(10L, "200.00");
+        Transaction second = pending(11L, "150.00");
+        when(transactionRepository.lockByIdInAndStatus(List.of(10L, 11L), Transaction.TransactionStatus.PENDING))
+                .thenReturn(List.of(first, second));
+        when(cardRepository.lockByIdIn(Set.of(1L, 2L))).thenReturn(List.of(fromCard, toCard));
+        when(cardRepository.debit(eq(1L), eq(new BigDecimal("200.00")), any())).thenReturn(1);
+
+        // Act
+        cardService.executePendingTransfers(List.of(10L, 11L));
+
+        // Assert
+        verify(transactionRepository).updateStatus(10L, Transaction.TransactionStatus.COMPLETED, null);
+        verify(transactionRepository).updateStatus(11L, Transaction.TransactionStatus.FAILED, "Insufficient funds for this operation");
+        verify(cardRepository, never()).debit(eq(1L), eq(new BigDecimal("150.00")), any());
+        verify(transferMetrics).recordSuccess();
+        verify(transferMetrics).recordFailure(any(InsufficientFundsException.class));
+    }
+
+    @Test
+    void executePendingTransfers_RecordsCompletedTransfersInOneCall() {
+        // Arrange
+        Transaction first = pending(10L, "100.00");
+        Transaction second = pending(11L, "500.00");
+        when(transactionRepository.lockByIdInAndStatus(List.of(10L, 11L), Transaction.TransactionStatus.PENDING))
+                .thenReturn(List.of(first, second));
+        when(cardRepository.lockByIdIn(Set.of(1L, 2L))).thenReturn(List.of(fromCard, toCard));
+        when(cardRepository.debit(eq(1L), eq(new BigDecimal("100.00")), any())).thenReturn(1);
+
+        // Act
+        cardService.executePendingTransfers(List.of(10L, 11L));
+
+        // Assert: the overdrawn transfer gets no postings and no events
+        verify(ledgerService).postTransfers(List.of(first));
+        verify(outboxWriter).recordTransfers(List.of(first));
+    }
+
+    @Test
+    void executePendingTransfers_SnapshotsUseRunningBalances() {
+        // Arrange
+        Transaction first = pending(10L, "100.00");
+        Transaction second = pending(11L, "100.00");
+        when(transactionRepository.lockByIdInAndStatus(List.of(10L, 11L), Transaction.TransactionStatus.PENDING))
+                .thenReturn(List.of(first, second));
+        when(cardRepository.lockByIdIn(Set.of(1L, 2L))).thenReturn(List.of(fromCard, toCard));
+        when(cardRepository.debit(eq(1L), eq(new BigDecimal("100.00")), any())).thenReturn(1);
+
+        // Act
+        cardService.executePendingTransfers(List.of(10L, 11L));
+
+        // Assert
+        InOrder inOrder = inOrder(balanceSnapshotService);
+        inOrder.verify(balanceSnapshotService).recordDebit(1L, new BigDecimal("300.00"), new BigDecimal("100.00"));
+        inOrder.verify(balanceSnapshotService).recordCredit(2L, new BigDecimal("50.00"), new BigDecimal("100.00"));
+        inOrder.verify(balanceSnapshotService).recordDebit(1L, new BigDecimal("200.00"), new BigDecimal("100.00"));
+        inOrder.verify(balanceSnapshotService).recordCredit(2L, new BigDecimal("150.00"), new BigDecimal("100.00"));
+        verify(transactionRepository, times(2)).updateStatus(anyLong(), eq(Transaction.TransactionStatus.COMPLETED), isNull());
+    }
+
+    @Test
+    void executePendingTransfers_ShardedDestination_NotLockedAndCreditedToShard() {
+        // Arrange
+        toCard.setBalanceShards(8);
+        when(balanceShardService.isSharded(2L)).thenReturn(true);
+        when(transactionRepository.lockByIdInAndStatus(List.of(10L), Transaction.TransactionStatus.PENDING))
+                .thenReturn(List.of(pending(10L, "100.00")));
+        when(cardRepository.lockByIdIn(Set.of(1L))).thenReturn(List.of(fromCard));
+        when(cardRepository.findAllById(Set.of(2L))).thenReturn(List.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(new BigDecimal("100.00")), any())).thenReturn(1);
+        when(balanceShardService.credit(eq(toCard), eq(1L), eq(new BigDecimal("100.00")), any())).thenReturn(true);
+
+        // Act
+        cardService.executePendingTransfers(List.of(10L));
+
+        // Assert
+        verify(transactionRepository).updateStatus(10L, Transaction.TransactionStatus.COMPLETED, null);
+        verify(cardRepository, never()).credit(any(), any(), any());
+        verify(balanceSnapshotService, never()).recordCredit(any(), any(), any());
+    }
+
+    @Test
+    void executePendingTransfers_BlockedDestination_FailsWithReason() {
+        // Arrange
+        toCard.setStatus(Card.CardStatus.BLOCKED);
+        when(transactionRepository.lockByIdInAndStatus(List.of(10L), Transaction.TransactionStatus.PENDING))
+                .thenReturn(List.of(pending(10L, "100.00")));
+        when(cardRepository.lockByIdIn(Set.of(1L, 2L))).thenReturn(List.of(fromCard, toCard));
+
+        // Act
+        cardService.executePendingTransfers(List.of(10L));
+
+        // Assert
+        verify(transactionRepository).updateStatus(10L, Transaction.TransactionStatus.FAILED, "Destination card is not active");
+        verify(cardRepository, never()).debit(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void executePendingTransfers_AlreadyClaimed_NothingLocked() {
+        // Arrange
+        when(transactionRepository.lockByIdInAndStatus(List.of(10L), Transaction.TransactionStatus.PENDING))
+                .thenReturn(List.of());
+
+        // Act
+        cardService.executePendingTransfers(List.of(10L));
+
+        // Assert
+        verify(cardRepository, never()).lockByIdIn(any());
+        verify(transactionRepository, never()).updateStatus(any(), any(), any());
+    }
+
+    private Transaction pending(Long id, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setFromCard(fromCard);
+        transaction.setToCard(toCard);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setStatus(Transaction.TransactionStatus.PENDING);
+        return transaction;
+    }
+
+    private Card card(Long id, User owner, String balance) {
+        Card card = new Card();
+        card.setId(id);
+        card.setOwner(owner);
+        card.setBalance(new BigDecimal(balance));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setExpiryDate(LocalDate.now().plusYears(3));
+        return card;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.bankrest.service;
 
+import com.example.bankrest.cache.CardResponseCache;
 import com.example.bankrest.dto.CardResponse;
 import com.example.bankrest.dto.CreateCardRequest;
 import com.example.bankrest.entity.Card;
 import com.example.bankrest.entity.User;
+import com.example.bankrest.metrics.TransferMetrics;
+import com.example.bankrest.outbox.OutboxWriter;
 import com.example.bankrest.repository.CardRepository;
 import com.example.bankrest.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,6 +37,21 @@ class CardServiceSimpleTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CardResponseCache cardResponseCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransferMetrics transferMetrics;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -1,14 +1,20 @@
 package com.example.bankrest.service;
 
+import com.example.bankrest.cache.CardResponseCache;
 import com.example.bankrest.dto.CardResponse;
 import com.example.bankrest.dto.CreateCardRequest;
 import com.example.bankrest.entity.Card;
 import com.example.bankrest.entity.User;
+import com.example.bankrest.event.CardChangedEvent;
+import com.example.bankrest.exception.CardHasTransactionsException;
 import com.example.bankrest.exception.CardNotActiveException;
 import com.example.bankrest.exception.CardNotFoundException;
 import com.example.bankrest.exception.InsufficientFundsException;
 import com.example.bankrest.exception.UnauthorizedCardAccessException;
+import com.example.bankrest.metrics.TransferMetrics;
+import com.example.bankrest.outbox.OutboxWriter;
 import com.example.bankrest.repository.CardRepository;
+import com.example.bankrest.repository.TransactionRepository;
 import com.example.bankrest.repository.UserRepository;
 import com.example.bankrest.util.CardNumberEncryption;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +23,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -45,9 +53,33 @@ class CardServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CardBalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private CardBalanceShardService balanceShardService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
     @Mock
     private CardNumberEncryption cardEncryption;
 
+    @Mock
+    private CardResponseCache cardResponseCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransferMetrics transferMetrics;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -135,9 +167,6 @@ class CardServiceTest {
         when(cardEncryption.decrypt("encrypted_1234567890123456")).thenReturn("1234567890123456");
         when(cardEncryption.maskCardNumber("1234567890123456")).thenReturn("****-****-****-3456");
 
-        testCard.setStatus(Card.CardStatus.BLOCKED);
-        when(cardRepository.save(testCard)).thenReturn(testCard);
-
         // Act
         CardResponse result = cardService.blockCard(1L);
 
@@ -145,7 +174,9 @@ class CardServiceTest {
         assertNotNull(result);
         assertEquals(Card.CardStatus.BLOCKED, result.getStatus());
         verify(cardRepository).findById(1L);
-        verify(cardRepository).save(testCard);
+        verify(cardRepository).updateStatus(eq(1L), eq(Card.CardStatus.BLOCKED), any());
+        verify(cardRepository, never()).save(any(Card.class));
+        verify(eventPublisher).publishEvent(any(CardChangedEvent.class));
     }
 
     @Test
@@ -167,9 +198,6 @@ class CardServiceTest {
         when(cardEncryption.decrypt("encrypted_1234567890123456")).thenReturn("1234567890123456");
         when(cardEncryption.maskCardNumber("1234567890123456")).thenReturn("****-****-****-3456");
 
-        testCard.setStatus(Card.CardStatus.ACTIVE);
-        when(cardRepository.save(testCard)).thenReturn(testCard);
-
         // Act
         CardResponse result = cardService.activateCard(1L);
 
@@ -177,7 +205,7 @@ class CardServiceTest {
         assertNotNull(result);
         assertEquals(Card.CardStatus.ACTIVE, result.getStatus());
         verify(cardRepository).findById(1L);
-        verify(cardRepository).save(testCard);
+        verify(cardRepository).updateStatus(eq(1L), eq(Card.CardStatus.ACTIVE), any());
     }
 
     @Test
@@ -189,12 +217,14 @@ class CardServiceTest {
         fromCard.setId(1L);
         fromCard.setBalance(BigDecimal.valueOf(1000.00));
         fromCard.setStatus(Card.CardStatus.ACTIVE);
+        fromCard.setExpiryDate(LocalDate.now().plusYears(3));
         fromCard.setOwner(testUser);
 
         Card toCard = new Card();
         toCard.setId(2L);
         toCard.setBalance(BigDecimal.valueOf(500.00));
         toCard.setStatus(Card.CardStatus.ACTIVE);
+        toCard.setExpiryDate(LocalDate.now().plusYears(3));
         toCard.setOwner(testUser);
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
@@ -202,14 +232,17 @@ class CardServiceTest {
         when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
 
         BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        when(cardRepository.findBalanceById(1L)).thenReturn(BigDecimal.valueOf(800.00));
+        when(cardRepository.findBalanceById(2L)).thenReturn(BigDecimal.valueOf(700.00));
 
         // Act
         cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
 
         // Assert
-        assertEquals(BigDecimal.valueOf(800.00), fromCard.getBalance());
-        assertEquals(BigDecimal.valueOf(700.00), toCard.getBalance());
-        verify(cardRepository, times(2)).save(any(Card.class));
+        verify(cardRepository).debit(eq(1L), eq(transferAmount), any());
+        verify(cardRepository).credit(eq(2L), eq(transferAmount), any());
+        verify(transferMetrics).recordSuccess();
     }
 
     @Test
@@ -221,12 +254,14 @@ class CardServiceTest {
         fromCard.setId(1L);
         fromCard.setBalance(BigDecimal.valueOf(100.00));
         fromCard.setStatus(Card.CardStatus.ACTIVE);
+        fromCard.setExpiryDate(LocalDate.now().plusYears(3));
         fromCard.setOwner(testUser);
 
         Card toCard = new Card();
         toCard.setId(2L);
         toCard.setBalance(BigDecimal.valueOf(500.00));
         toCard.setStatus(Card.CardStatus.ACTIVE);
+        toCard.setExpiryDate(LocalDate.now().plusYears(3));
         toCard.setOwner(testUser);
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
@@ -239,6 +274,8 @@ class CardServiceTest {
         assertThrows(InsufficientFundsException.class,
             () -> cardService.transferBetweenOwnCards(1L, 2L, transferAmount));
         verify(cardRepository, never()).save(any(Card.class));
+        verify(transferMetrics).recordFailure(any(InsufficientFundsException.class));
+        verify(transferMetrics, never()).recordSuccess();
     }
 
     @Test
@@ -256,6 +293,7 @@ class CardServiceTest {
         toCard.setId(2L);
         toCard.setBalance(BigDecimal.valueOf(500.00));
         toCard.setStatus(Card.CardStatus.ACTIVE);
+        toCard.setExpiryDate(LocalDate.now().plusYears(3));
         toCard.setOwner(testUser);
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
@@ -313,6 +351,34 @@ class CardServiceTest {
         verify(cardRepository).findById(1L);
     }
 
+    @Test
+    void getCardById_CacheHit_SkipsRepository() {
+        // Arrange
+        setupSecurityContext();
+        CardResponse cached = new CardResponse(1L, "****-****-****-3456", "testuser",
+                testCard.getExpiryDate(), Card.CardStatus.ACTIVE, testCard.getBalance(), null);
+        when(cardResponseCache.getCard(1L)).thenReturn(cached);
+
+        // Act
+        CardResponse result = cardService.getCardById(1L);
+
+        // Assert
+        assertSame(cached, result);
+        verify(cardRepository, never()).findById(any());
+    }
+
+    @Test
+    void getCardById_CacheHitForOtherOwner_ThrowsUnauthorized() {
+        // Arrange
+        setupSecurityContext();
+        CardResponse cached = new CardResponse(1L, "****-****-****-3456", "otheruser",
+                testCard.getExpiryDate(), Card.CardStatus.ACTIVE, testCard.getBalance(), null);
+        when(cardResponseCache.getCard(1L)).thenReturn(cached);
+
+        // Act & Assert
+        assertThrows(UnauthorizedCardAccessException.class, () -> cardService.getCardById(1L));
+    }
+
     @Test
     void getCardById_NotFound() {
         // Arrange
@@ -323,6 +389,39 @@ class CardServiceTest {
         verify(cardRepository).findById(1L);
     }
 
+    @Test
+    void getCardVersion_FromProjection_FoldsLedgerPostingWithoutDecrypting() {
+        // Arrange
+        setupSecurityContext();
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 19, 12, 0);
+        CardRepository.CardVersion version = mock(CardRepository.CardVersion.class);
+        when(version.getOwnerUsername()).thenReturn("testuser");
+        when(version.getUpdatedAt()).thenReturn(updatedAt);
+        when(version.getMaterializedTxid()).thenReturn(5L);
+        when(version.getUnappliedPostedAt()).thenReturn(updatedAt.plusSeconds(1));
+        when(cardRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        // Act
+        LocalDateTime result = cardService.getCardVersion(1L);
+
+        // Assert
+        assertEquals(updatedAt.plusSeconds(1), result);
+        verify(cardRepository, never()).findById(any());
+        verifyNoInteractions(cardEncryption);
+    }
+
+    @Test
+    void getCardVersion_OtherOwner_ThrowsUnauthorized() {
+        // Arrange
+        setupSecurityContext();
+        CardRepository.CardVersion version = mock(CardRepository.CardVersion.class);
+        when(version.getOwnerUsername()).thenReturn("otheruser");
+        when(cardRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        // Act & Assert
+        assertThrows(UnauthorizedCardAccessException.class, () -> cardService.getCardVersion(1L));
+    }
+
     @Test
     void deleteCard_Success() {
         // Arrange
@@ -337,6 +436,30 @@ class CardServiceTest {
         verify(cardRepository).delete(testCard);
     }
 
+    @Test
+    void deleteCard_WithTransfers_ThrowsCardHasTransactions() {
+        // Arrange
+        testCard.setBalance(BigDecimal.ZERO);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+        when(transactionRepository.existsByFromCardIdOrToCardId(1L, 1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(CardHasTransactionsException.class, () -> cardService.deleteCard(1L));
+        verify(cardRepository, never()).delete(any(Card.class));
+    }
+
+    @Test
+    void deleteCard_TransferCommittedSinceCheck_ThrowsCardHasTransactions() {
+        // Arrange
+        testCard.setBalance(BigDecimal.ZERO);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+        doThrow(new DataIntegrityViolationException("fk_transactions_from_card")).when(cardRepository).flush();
+
+        // Act & Assert
+        assertThrows(CardHasTransactionsException.class, () -> cardService.deleteCard(1L));
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void deleteCard_NotFound() {
         // Arrange
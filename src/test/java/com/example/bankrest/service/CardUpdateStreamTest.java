@@ -0,0 +1,235 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.dto.CardUpdateResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.event.CardChangedEvent;
+import com.example.bankrest.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardUpdateStreamTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Runnable> queuedDrains = new ArrayList<>();
+    private int queuedDrainsRun;
+    private SimpleMeterRegistry meterRegistry;
+    private CardUpdateStream stream;
+    private RecordingEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new CardUpdateStream(cardRepository, transactionTemplate, queuedDrains::add,
+                meterRegistry, Duration.ofMinutes(30), 2);
+        emitter = new RecordingEmitter();
+        stream.register("john", emitter);
+    }
+
+    @Test
+    void onCardChanged_SendsCurrentStateToOwner() {
+        // Arrange
+        stubStates(state(1L, Card.CardStatus.ACTIVE, "900.00"));
+
+        // Act
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        runDrains();
+
+        // Assert
+        CardUpdateResponse update = emitter.single("card", CardUpdateResponse.class);
+        assertEquals(1L, update.getCardId());
+        assertEquals(CardChangedEvent.ChangeType.BALANCE_CHANGED, update.getChangeType());
+        assertEquals(Card.CardStatus.ACTIVE, update.getStatus());
+        assertEquals(new BigDecimal("900.00"), update.getBalance());
+    }
+
+    @Test
+    void onCardChanged_OtherOwner_NothingQueued() {
+        // Act
+        stream.onCardChanged(new CardChangedEvent(1L, "jane", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+
+        // Assert
+        assertTrue(queuedDrains.isEmpty());
+    }
+
+    @Test
+    void onCardChanged_WhileDrainPending_KeepsLatestChangePerCard() {
+        // Arrange
+        stubStates(state(1L, Card.CardStatus.BLOCKED, "800.00"));
+
+        // Act
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BLOCKED));
+        runDrains();
+
+        // Assert
+        CardUpdateResponse update = emitter.single("card", CardUpdateResponse.class);
+        assertEquals(CardChangedEvent.ChangeType.BLOCKED, update.getChangeType());
+        assertEquals(2.0, meterRegistry.get("cards.stream.dropped").tag("reason", "coalesced").counter().count());
+    }
+
+    @Test
+    void onCardChanged_BufferOverflow_SendsResyncInsteadOfUpdates() {
+        // Act
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        stream.onCardChanged(new CardChangedEvent(2L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        stream.onCardChanged(new CardChangedEvent(3L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        runDrains();
+
+        // Assert
+        assertEquals("overflow", emitter.single("resync", String.class));
+        verifyNoInteractions(cardRepository);
+        assertEquals(3.0, meterRegistry.get("cards.stream.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    @Test
+    void resyncAll_DropsPendingChangesAndSendsResync() {
+        // Act
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        stream.resyncAll();
+        runDrains();
+
+        // Assert
+        assertEquals("missed", emitter.single("resync", String.class));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void onCardChanged_DeletedCard_SendsDeleted() {
+        // Arrange
+        stubStates();
+
+        // Act
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.DELETED));
+        runDrains();
+
+        // Assert
+        CardUpdateResponse update = emitter.single("card", CardUpdateResponse.class);
+        assertEquals(CardChangedEvent.ChangeType.DELETED, update.getChangeType());
+        assertNull(update.getBalance());
+    }
+
+    @Test
+    void sendHeartbeats_IdleConnection_SendsComment() {
+        // Act
+        stream.sendHeartbeats();
+        runDrains();
+
+        // Assert
+        assertEquals(1, emitter.sent.size());
+        assertEquals(":heartbeat\n\n", emitter.text(0));
+    }
+
+    @Test
+    void sendHeartbeats_ConnectionStillDraining_Skipped() {
+        // Arrange
+        stubStates(state(1L, Card.CardStatus.ACTIVE, "900.00"));
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+
+        // Act
+        stream.sendHeartbeats();
+        runDrains();
+
+        // Assert
+        assertEquals(1, emitter.sent.size());
+        assertEquals(1, queuedDrainsRun);
+    }
+
+    @Test
+    void completedEmitter_IsUnregistered() {
+        // Arrange
+        emitter.failSends = true;
+        stream.onCardChanged(new CardChangedEvent(1L, "john", CardChangedEvent.ChangeType.BALANCE_CHANGED));
+        stubStates(state(1L, Card.CardStatus.ACTIVE, "900.00"));
+
+        // Act
+        runDrains();
+
+        // Assert
+        assertEquals(0, stream.connectionCount());
+    }
+
+    private void runDrains() {
+        while (!queuedDrains.isEmpty()) {
+            queuedDrains.remove(0).run();
+            queuedDrainsRun++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubStates(CardRepository.CardState... states) {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(cardRepository.findStatesByIdIn(anyCollection())).thenReturn(List.of(states));
+    }
+
+    private CardRepository.CardState state(Long id, Card.CardStatus status, String balance) {
+        return new CardRepository.CardState() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Card.CardStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+        };
+    }
+
+    // Keeps what would have been written to the response
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<ResponseBodyEmitter.DataWithMediaType>> sent = new ArrayList<>();
+        private boolean failSends;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build());
+        }
+
+        String text(int index) {
+            return sent.get(index).stream().map(part -> part.getData().toString()).reduce("", String::concat);
+        }
+
+        <T> T single(String eventName, Class<T> type) {
+            assertEquals(1, sent.size());
+            List<Object> parts = sent.get(0).stream().map(ResponseBodyEmitter.DataWithMediaType::getData).toList();
+            assertTrue(parts.get(0).toString().contains("event:" + eventName + "\n"));
+            return type.cast(parts.get(1));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.EmbeddedPostgresTest;
+import com.example.bankrest.dto.CreateCardRequest;
+import com.example.bankrest.dto.LedgerReplayResponse;
+import com.example.bankrest.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Ledger balances on Postgres, where postings carry real transaction ids and ledger_state has its row
+@SpringBootTest
+class LedgerReconciliationTest extends EmbeddedPostgresTest {
+
+    private static final String USERNAME = "ledger-reconciliation";
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void transferMaterializeReplay_LedgerMatchesCards() {
+        // Arrange
+        Long ownerId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email, role) " +
+                "VALUES (?, 'unused', ?, 'USER') RETURNING id", Long.class, USERNAME, USERNAME + "@test.local");
+        authenticate("admin", "ROLE_ADMIN");
+        Long fromId = createCard(ownerId, "100.00");
+        Long toId = createCard(ownerId, "5.00");
+        List<Long> cardIds = List.of(fromId, toId);
+
+        // Act: transfer, then read before materializing
+        authenticate(USERNAME, "ROLE_USER");
+        cardService.transferBetweenOwnCards(fromId, toId, new BigDecimal("30.00"));
+        Map<Long, BigDecimal> unmaterialized = ledgerBalances(cardIds);
+        BigDecimal fromRead = cardService.getCardById(fromId).getBalance();
+
+        // Assert
+        assertEquals(0, new BigDecimal("70.00").compareTo(unmaterialized.get(fromId)));
+        assertEquals(0, new BigDecimal("35.00").compareTo(unmaterialized.get(toId)));
+        assertEquals(0, new BigDecimal("70.00").compareTo(fromRead));
+
+        // Act: materialize, then read again
+        int materialized = ledgerService.materialize();
+        Map<Long, BigDecimal> materializedBalances = ledgerBalances(cardIds);
+
+        // Assert
+        assertTrue(materialized >= 2, () -> "Cards materialized: " + materialized);
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ledger_balances WHERE card_id IN (?, ?)", Integer.class, fromId, toId));
+        assertEquals(unmaterialized, materializedBalances);
+
+        // Act
+        LedgerReplayResponse replay = ledgerService.replay();
+
+        // Assert
+        assertEquals(0, replay.getUnbalancedJournals());
+        assertTrue(replay.getMismatches().isEmpty(), () -> "Mismatched cards: " + replay.getMismatches().stream()
+                .map(LedgerReplayResponse.Mismatch::getCardId).toList());
+        assertEquals(materializedBalances, ledgerBalances(cardIds));
+    }
+
+    private Map<Long, BigDecimal> ledgerBalances(List<Long> cardIds) {
+        return ledgerEntryRepository.findCardBalances(cardIds).stream()
+                .collect(Collectors.toMap(LedgerEntryRepository.CardBalance::getCardId,
+                        balance -> balance.getBalance().setScale(2)));
+    }
+
+    private Long createCard(Long ownerId, String initialBalance) {
+        CreateCardRequest request = new CreateCardRequest();
+        request.setOwnerId(ownerId);
+        request.setInitialBalance(new BigDecimal(initialBalance));
+        return cardService.createCard(request).getId();
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+}
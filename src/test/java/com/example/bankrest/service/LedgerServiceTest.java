@@ -0,0 +1,230 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.dto.CardResponse;
+import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.Transaction;
+import com.example.bankrest.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    @Test
+    void postTransfers_AppendsBalancedPostingsInOneBatch() {
+        // Act
+        ledgerService.postTransfers(List.of(transfer(10L, 1L, 2L, "100.00"), transfer(11L, 1L, 3L, "25.50")));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> postings = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(LedgerService.APPEND_SQL), postings.capture());
+        assertEquals(4, postings.getValue().size());
+        assertArrayEquals(new Object[]{"TRANSFER", 10L, "CARD", 1L, new BigDecimal("-100.00")},
+                Arrays.copyOf(postings.getValue().get(0), 5));
+        assertArrayEquals(new Object[]{"TRANSFER", 10L, "CARD", 2L, new BigDecimal("100.00")},
+                Arrays.copyOf(postings.getValue().get(1), 5));
+        BigDecimal total = postings.getValue().stream()
+                .map(posting -> (BigDecimal) posting[4])
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, total.signum());
+    }
+
+    @Test
+    void postTransfers_NothingCompleted_NoBatch() {
+        // Act
+        ledgerService.postTransfers(List.of());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void postOpeningBalance_CreditsCardAgainstOpeningAccount() {
+        // Arrange
+        Card card = new Card();
+        card.setId(5L);
+        card.setBalance(new BigDecimal("1000.00"));
+
+        // Act
+        ledgerService.postOpeningBalance(card);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> postings = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(LedgerService.APPEND_SQL), postings.capture());
+        assertEquals("CARD", postings.getValue().get(0)[2]);
+        assertEquals(new BigDecimal("1000.00"), postings.getValue().get(0)[4]);
+        assertEquals("OPENING", postings.getValue().get(1)[2]);
+        assertNull(postings.getValue().get(1)[3]);
+        assertEquals(new BigDecimal("-1000.00"), postings.getValue().get(1)[4]);
+    }
+
+    @Test
+    void postOpeningBalance_ZeroBalance_NoPostings() {
+        // Arrange
+        Card card = new Card();
+        card.setId(5L);
+        card.setBalance(BigDecimal.ZERO);
+
+        // Act
+        ledgerService.postOpeningBalance(card);
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void applyBalances_SetsLedgerBalanceAndLatestPosting() {
+        // Arrange
+        LocalDateTime cardUpdatedAt = LocalDateTime.of(2026, 10, 19, 12, 0);
+        LocalDateTime postedAt = cardUpdatedAt.plusSeconds(5);
+        CardResponse response = response(5L, "100.00", cardUpdatedAt);
+        CardResponse unknown = response(6L, "50.00", cardUpdatedAt);
+        when(ledgerEntryRepository.findCardBalances(List.of(5L, 6L)))
+                .thenReturn(List.of(balance(5L, 700L, "142.00", cardUpdatedAt.minusDays(1), postedAt)));
+
+        // Act
+        ledgerService.applyBalances(List.of(response, unknown));
+
+        // Assert
+        assertEquals(new BigDecimal("142.00"), response.getBalance());
+        assertEquals(postedAt, response.getUpdatedAt());
+        assertEquals(new BigDecimal("50.00"), unknown.getBalance());
+        assertEquals(cardUpdatedAt, unknown.getUpdatedAt());
+    }
+
+    @Test
+    void applyBalances_NoLedgerState_KeepsCardBalance() {
+        // Arrange
+        LocalDateTime cardUpdatedAt = LocalDateTime.of(2026, 10, 19, 12, 0);
+        CardResponse response = response(5L, "100.00", cardUpdatedAt);
+        when(ledgerEntryRepository.findCardBalances(List.of(5L)))
+                .thenReturn(List.of(balance(5L, null, "0.00", null, null)));
+
+        // Act
+        ledgerService.applyBalances(List.of(response));
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), response.getBalance());
+        assertEquals(cardUpdatedAt, response.getUpdatedAt());
+    }
+
+    @Test
+    void materialize_LockHeldByAnotherNode_Skips() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(LedgerService.TRY_LOCK_SQL, Boolean.class)).thenReturn(false);
+
+        // Act
+        int cards = ledgerService.materialize();
+
+        // Assert
+        assertEquals(-1, cards);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void materialize_AddsPostingsUpToHorizonAndAdvancesWatermark() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(LedgerService.TRY_LOCK_SQL, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(LedgerService.WATERMARK_SQL, Long.class)).thenReturn(700L);
+        when(jdbcTemplate.queryForObject(LedgerService.HORIZON_SQL, Long.class)).thenReturn(750L);
+        when(jdbcTemplate.update(LedgerService.MATERIALIZE_SQL, 700L, 750L)).thenReturn(3);
+
+        // Act
+        int cards = ledgerService.materialize();
+
+        // Assert
+        assertEquals(3, cards);
+        verify(jdbcTemplate).update(LedgerService.ADVANCE_SQL, 750L);
+    }
+
+    @Test
+    void materialize_NoTransactionFinishedSinceLastRun_LeavesWatermark() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(LedgerService.TRY_LOCK_SQL, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(LedgerService.WATERMARK_SQL, Long.class)).thenReturn(750L);
+        when(jdbcTemplate.queryForObject(LedgerService.HORIZON_SQL, Long.class)).thenReturn(750L);
+
+        // Act
+        int cards = ledgerService.materialize();
+
+        // Assert
+        assertEquals(0, cards);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private Transaction transfer(Long id, Long fromCardId, Long toCardId, String amount) {
+        Card from = new Card();
+        from.setId(fromCardId);
+        Card to = new Card();
+        to.setId(toCardId);
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setFromCard(from);
+        transaction.setToCard(to);
+        transaction.setAmount(new BigDecimal(amount));
+        return transaction;
+    }
+
+    private CardResponse response(Long id, String balance, LocalDateTime updatedAt) {
+        CardResponse response = new CardResponse(id, "**** **** **** 0001", "john", null,
+                Card.CardStatus.ACTIVE, new BigDecimal(balance), null);
+        response.setUpdatedAt(updatedAt);
+        return response;
+    }
+
+    private LedgerEntryRepository.CardBalance balance(Long cardId, Long materializedTxid, String balance,
+                                                      LocalDateTime materializedPostedAt,
+                                                      LocalDateTime unappliedPostedAt) {
+        return new LedgerEntryRepository.CardBalance() {
+            @Override
+            public Long getCardId() {
+                return cardId;
+            }
+
+            @Override
+            public Long getMaterializedTxid() {
+                return materializedTxid;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+
+            @Override
+            public LocalDateTime getMaterializedPostedAt() {
+                return materializedPostedAt;
+            }
+
+            @Override
+            public LocalDateTime getUnappliedPostedAt() {
+                return unappliedPostedAt;
+            }
+        };
+    }
+}
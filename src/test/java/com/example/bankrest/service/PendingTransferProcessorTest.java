@@ -0,0 +1,155 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.entity.Transaction;
+import com.example.bankrest.exception.CardBusyException;
+import com.example.bankrest.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingTransferProcessorTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CardService cardService;
+
+    @Mock
+    private CardBalanceShardService balanceShardService;
+
+    @InjectMocks
+    private PendingTransferProcessor processor;
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(processor, "batchSize", 100);
+        ReflectionTestUtils.setField(processor, "cardLocks", new CardLocks(new SimpleMeterRegistry(), 16, Duration.ofSeconds(1)));
+        ReflectionTestUtils.setField(processor, "transferExecutor", (TaskExecutor) submitted::add);
+    }
+
+    @Test
+    void dispatch_GroupsQueuedTransfersBySourceCard() {
+        // Arrange
+        stubQueued(queued(10L, 1L, 9L), queued(11L, 2L, 9L), queued(12L, 1L, 9L));
+
+        // Act
+        processor.dispatch();
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(2, submitted.size());
+        verify(cardService).executePendingTransfers(List.of(10L, 12L));
+        verify(cardService).executePendingTransfers(List.of(11L));
+    }
+
+    @Test
+    void dispatch_CardBatchStillRunning_NotDispatchedAgain() {
+        // Arrange
+        stubQueued(queued(10L, 1L, 9L));
+
+        // Act
+        processor.dispatch();
+        processor.dispatch();
+
+        // Assert
+        assertEquals(1, submitted.size());
+    }
+
+    @Test
+    void dispatch_WorkersBusy_CardReleasedForNextPoll() {
+        // Arrange
+        stubQueued(queued(10L, 1L, 9L));
+        ReflectionTestUtils.setField(processor, "transferExecutor", (TaskExecutor) task -> {
+            throw new TaskRejectedException("queue full");
+        });
+        processor.dispatch();
+        ReflectionTestUtils.setField(processor, "transferExecutor", (TaskExecutor) submitted::add);
+
+        // Act
+        processor.dispatch();
+
+        // Assert
+        assertEquals(1, submitted.size());
+    }
+
+    @Test
+    void batchFails_RetriedOneByOneAndPoisonTransferMarkedFailed() {
+        // Arrange
+        stubQueued(queued(10L, 1L, 9L), queued(11L, 1L, 9L));
+        doThrow(new QueryTimeoutException("timeout")).when(cardService).executePendingTransfers(List.of(10L, 11L));
+        doNothing().when(cardService).executePendingTransfers(List.of(10L));
+        doThrow(new QueryTimeoutException("timeout")).when(cardService).executePendingTransfers(List.of(11L));
+
+        // Act
+        processor.dispatch();
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        verify(cardService).executePendingTransfers(List.of(10L));
+        verify(cardService, never()).failPendingTransfer(eq(10L), anyString());
+        verify(cardService).failPendingTransfer(11L, PendingTransferProcessor.PROCESSING_FAILED);
+    }
+
+    @Test
+    void batchCardsBusy_LeftPendingForLaterPoll() {
+        // Arrange
+        stubQueued(queued(10L, 1L, 9L));
+        doThrow(new CardBusyException("Card is busy, please retry the transfer"))
+                .when(cardService).executePendingTransfers(List.of(10L));
+
+        // Act
+        processor.dispatch();
+        submitted.forEach(Runnable::run);
+        processor.dispatch();
+
+        // Assert
+        verify(cardService, times(1)).executePendingTransfers(anyCollection());
+        verify(cardService, never()).failPendingTransfer(anyLong(), anyString());
+        assertEquals(2, submitted.size());
+    }
+
+    private void stubQueued(TransactionRepository.QueuedTransfer... queued) {
+        when(transactionRepository.findQueued(eq(Transaction.TransactionStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of(queued));
+    }
+
+    private TransactionRepository.QueuedTransfer queued(Long id, Long fromCardId, Long toCardId) {
+        return new TransactionRepository.QueuedTransfer() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getFromCardId() {
+                return fromCardId;
+            }
+
+            @Override
+            public Long getToCardId() {
+                return toCardId;
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankrest.service;
+
+import com.example.bankrest.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Partition maintenance on Postgres; the service is built by hand because the scheduled bean is off in tests
+@SpringBootTest
+class TransactionPartitionMaintenanceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private TransactionPartitionService partitionService;
+
+    @BeforeEach
+    void setUp() {
+        partitionService = new TransactionPartitionService();
+        ReflectionTestUtils.setField(partitionService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 3);
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 24);
+        // Not the schema changeset 010 creates
+        ReflectionTestUtils.setField(partitionService, "archiveSchema", "transactions_history");
+        partitionService.checkArchiveSchema();
+    }
+
+    @Test
+    void maintainPartitions_DetachesExpiredPartitionIntoArchiveSchema() {
+        // Arrange
+        createPartition("transactions_y2001m01", "2001-01-01", "2001-02-01");
+        insertTransactionDated("2001-01-15");
+
+        // Act
+        partitionService.maintainPartitions();
+
+        // Assert
+        assertFalse(isAttached("transactions_y2001m01"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions_history.transactions_y2001m01", Integer.class));
+        assertTrue(isAttached(TransactionPartitionService.partitionName(YearMonth.now().plusMonths(3))));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('transactions_default')::text", String.class));
+    }
+
+    @Test
+    void maintainPartitions_LockHeldByAnotherNode_Skipped() throws Exception {
+        // Arrange
+        createPartition("transactions_y2001m02", "2001-02-01", "2001-03-01");
+
+        // Act
+        try (Connection otherNode = dataSource.getConnection(); Statement statement = otherNode.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(hashtext('transactions.partitions'))");
+            partitionService.maintainPartitions();
+            statement.execute("SELECT pg_advisory_unlock(hashtext('transactions.partitions'))");
+        }
+
+        // Assert
+        assertTrue(isAttached("transactions_y2001m02"));
+    }
+
+    private void createPartition(String name, String from, String to) {
+        jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF transactions FOR VALUES FROM ('"
+                + from + "') TO ('" + to + "')");
+    }
+
+    private void insertTransactionDated(String date) {
+        Long ownerId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email, role) " +
+                "VALUES ('partition-archive', 'unused', 'partition-archive@test.local', 'USER') RETURNING id", Long.class);
+        Long cardId = jdbcTemplate.queryForObject("INSERT INTO cards (encrypted_card_number, owner_id, expiry_date, " +
+                "status, balance) VALUES ('partition-archive', ?, CURRENT_DATE + 365, 'ACTIVE', 0) RETURNING id",
+                Long.class, ownerId);
+        jdbcTemplate.update("INSERT INTO transactions (from_card_id, to_card_id, from_owner_id, to_owner_id, amount, " +
+                "transaction_date) VALUES (?, ?, ?, ?, 1.00, CAST(? AS DATE))", cardId, cardId, ownerId, ownerId, date);
+    }
+
+    private boolean isAttached(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'transactions'::regclass AND c.relname = ?)", Boolean.class, partition));
+    }
+}
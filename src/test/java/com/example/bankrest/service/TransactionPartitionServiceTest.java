@@ -0,0 +1,98 @@
+package com.example.bankrest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TransactionPartitionService partitionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 2);
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 12);
+        ReflectionTestUtils.setField(partitionService, "archiveSchema", "transactions_archive");
+    }
+
+    @Test
+    void partitionName_UsesYearAndMonth() {
+        assertEquals("transactions_y2026m01", TransactionPartitionService.partitionName(YearMonth.of(2026, 1)));
+    }
+
+    @Test
+    void createFuturePartitions_CreatesCurrentAndUpcomingMonths() {
+        // Act
+        partitionService.createFuturePartitions(jdbcTemplate, YearMonth.of(2026, 11));
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS transactions_y2026m11"
+                + " PARTITION OF transactions FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS transactions_y2026m12"
+                + " PARTITION OF transactions FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS transactions_y2027m01"
+                + " PARTITION OF transactions FOR VALUES FROM ('2027-01-01') TO ('2027-02-01')");
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void detachExpiredPartitions_DetachesOnlyPartitionsPastRetention() {
+        // Arrange
+        when(jdbcTemplate.queryForList(TransactionPartitionService.DETACH_PENDING_SQL, String.class)).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(TransactionPartitionService.PARTITIONS_SQL, String.class)).thenReturn(List.of(
+                "transactions_y2025m09",
+                "transactions_y2025m10",
+                "transactions_y2026m10"));
+
+        // Act
+        partitionService.detachExpiredPartitions(jdbcTemplate, YearMonth.of(2026, 10));
+
+        // Assert
+        verify(jdbcTemplate).execute("ALTER TABLE transactions DETACH PARTITION transactions_y2025m09 CONCURRENTLY");
+        verify(jdbcTemplate).execute("CREATE SCHEMA IF NOT EXISTS transactions_archive");
+        verify(jdbcTemplate).execute("ALTER TABLE transactions_y2025m09 SET SCHEMA transactions_archive");
+        verify(jdbcTemplate, never()).execute(contains("transactions_y2025m10"));
+        verify(jdbcTemplate, never()).execute(contains("transactions_y2026m10"));
+    }
+
+    @Test
+    void detachExpiredPartitions_InterruptedDetach_FinalizedAndArchived() {
+        // Arrange
+        when(jdbcTemplate.queryForList(TransactionPartitionService.DETACH_PENDING_SQL, String.class))
+                .thenReturn(List.of("transactions_y2024m01"));
+        when(jdbcTemplate.queryForList(TransactionPartitionService.PARTITIONS_SQL, String.class)).thenReturn(List.of());
+
+        // Act
+        partitionService.detachExpiredPartitions(jdbcTemplate, YearMonth.of(2026, 10));
+
+        // Assert
+        verify(jdbcTemplate).execute("ALTER TABLE transactions DETACH PARTITION transactions_y2024m01 FINALIZE");
+        verify(jdbcTemplate).execute("ALTER TABLE transactions_y2024m01 SET SCHEMA transactions_archive");
+    }
+
+    @Test
+    void checkArchiveSchema_NotAnIdentifier_Fails() {
+        // Arrange
+        ReflectionTestUtils.setField(partitionService, "archiveSchema", "archive; DROP TABLE cards");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> partitionService.checkArchiveSchema());
+    }
+}
@@ -1,25 +1,34 @@
 package com.example.bankrest.service;
 
+import com.example.bankrest.cache.CardResponseCache;
 import com.example.bankrest.dto.TransferRequest;
+import com.example.bankrest.dto.TransferStatusResponse;
 import com.example.bankrest.entity.Card;
+import com.example.bankrest.entity.Transaction;
 import com.example.bankrest.entity.User;
 import com.example.bankrest.exception.CardNotActiveException;
 import com.example.bankrest.exception.CardNotFoundException;
 import com.example.bankrest.exception.InsufficientFundsException;
 import com.example.bankrest.exception.UnauthorizedCardAccessException;
+import com.example.bankrest.metrics.TransferMetrics;
+import com.example.bankrest.outbox.OutboxWriter;
 import com.example.bankrest.repository.CardRepository;
+import com.example.bankrest.repository.TransactionRepository;
 import com.example.bankrest.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +43,30 @@ class TransferLogicTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CardBalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private CardBalanceShardService balanceShardService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private CardResponseCache cardResponseCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransferMetrics transferMetrics;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -68,6 +101,7 @@ class TransferLogicTest {
         fromCard.setEncryptedCardNumber("encrypted_1111111111111111");
         fromCard.setBalance(BigDecimal.valueOf(1000.00));
         fromCard.setStatus(Card.CardStatus.ACTIVE);
+        fromCard.setExpiryDate(LocalDate.now().plusYears(3));
         fromCard.setOwner(testUser);
 
         toCard = new Card();
@@ -75,6 +109,7 @@ class TransferLogicTest {
         toCard.setEncryptedCardNumber("encrypted_2222222222222222");
         toCard.setBalance(BigDecimal.valueOf(500.00));
         toCard.setStatus(Card.CardStatus.ACTIVE);
+        toCard.setExpiryDate(LocalDate.now().plusYears(3));
         toCard.setOwner(testUser);
 
         anotherUserCard = new Card();
@@ -82,6 +117,7 @@ class TransferLogicTest {
         anotherUserCard.setEncryptedCardNumber("encrypted_3333333333333333");
         anotherUserCard.setBalance(BigDecimal.valueOf(300.00));
         anotherUserCard.setStatus(Card.CardStatus.ACTIVE);
+        anotherUserCard.setExpiryDate(LocalDate.now().plusYears(3));
         anotherUserCard.setOwner(anotherUser);
 
         // Setup Security Context
@@ -97,14 +133,165 @@ class TransferLogicTest {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 800.00);
+        stubBalanceAfterUpdate(2L, 700.00);
+
+        // Act
+        cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
+
+        // Assert
+        verify(cardRepository).debit(eq(1L), eq(transferAmount), any());
+        verify(cardRepository).credit(eq(2L), eq(transferAmount), any());
+        verify(cardRepository, never()).save(any(Card.class));
+    }
+
+    @Test
+    void transferBetweenOwnCards_BalanceSpentConcurrently_ThrowsException() {
+        // Arrange
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+            () -> cardService.transferBetweenOwnCards(1L, 2L, transferAmount));
+        verify(cardRepository, never()).credit(any(), any(), any());
+        // The transaction row is already inserted and is rolled back with the exception
+        verify(ledgerService, never()).postTransfers(any());
+        verify(outboxWriter, never()).recordTransfers(any());
+    }
+
+    @Test
+    void transferBetweenOwnCards_ValidTransfer_RecordsTransactionWithOwners() {
+        // Arrange
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 800.00);
+        stubBalanceAfterUpdate(2L, 700.00);
+
+        // Act
+        cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
+
+        // Assert
+        verify(transactionRepository).save(argThat(transaction ->
+                transaction.getFromCard() == fromCard &&
+                transaction.getToCard() == toCard &&
+                transaction.getFromOwnerId().equals(1L) &&
+                transaction.getToOwnerId().equals(1L) &&
+                transaction.getAmount().equals(transferAmount)));
+        verify(balanceSnapshotService).recordDebit(1L, BigDecimal.valueOf(1000.00), transferAmount);
+        verify(balanceSnapshotService).recordCredit(2L, BigDecimal.valueOf(500.00), transferAmount);
+    }
+
+    @Test
+    void transferBetweenOwnCards_StaleCardRead_SnapshotsBalancesReadAfterUpdate() {
+        // Arrange: another node moved money after the cards were read, the rows now hold 600 and 900
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 400.00);
+        stubBalanceAfterUpdate(2L, 1100.00);
+
+        // Act
+        cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
+
+        // Assert
+        verify(balanceSnapshotService).recordDebit(1L, BigDecimal.valueOf(600.00), transferAmount);
+        verify(balanceSnapshotService).recordCredit(2L, BigDecimal.valueOf(900.00), transferAmount);
+    }
+
+    @Test
+    void transferBetweenOwnCards_ValidTransfer_PostsToLedger() {
+        // Arrange
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 800.00);
+        stubBalanceAfterUpdate(2L, 700.00);
+
+        // Act
+        cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
+
+        // Assert
+        verify(ledgerService).postTransfers(argThat(transfers -> transfers.size() == 1
+                && transfers.get(0).getFromCard() == fromCard
+                && transfers.get(0).getToCard() == toCard
+                && transfers.get(0).getAmount().equals(transferAmount)));
+    }
+
+    @Test
+    void transferBetweenOwnCards_ShardedDestination_CreditsShardAndDefersRollup() {
+        // Arrange
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        toCard.setBalanceShards(8);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 800.00);
+        when(balanceShardService.credit(eq(toCard), eq(1L), eq(transferAmount), any())).thenReturn(true);
+
+        // Act
+        cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
+
+        // Assert
+        verify(cardRepository, never()).credit(any(), any(), any());
+        verify(balanceSnapshotService).recordDebit(1L, BigDecimal.valueOf(1000.00), transferAmount);
+        verify(balanceSnapshotService, never()).recordCredit(any(), any(), any());
+    }
+
+    @Test
+    void transferBetweenOwnCards_ShardGoneAfterReshard_CreditsCardBalance() {
+        // Arrange
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        toCard.setBalanceShards(8);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 800.00);
+        stubBalanceAfterUpdate(2L, 700.00);
+        when(balanceShardService.credit(eq(toCard), eq(1L), eq(transferAmount), any())).thenReturn(false);
+
+        // Act
+        cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
+
+        // Assert
+        verify(cardRepository).credit(eq(2L), eq(transferAmount), any());
+        verify(balanceSnapshotService).recordCredit(2L, BigDecimal.valueOf(500.00), transferAmount);
+    }
+
+    @Test
+    void transferBetweenOwnCards_ShardedSource_FoldsBeforeCheckingFunds() {
+        // Arrange: 1000.00 on the card row alone would not cover the transfer
+        BigDecimal transferAmount = BigDecimal.valueOf(1200.00);
+        fromCard.setBalanceShards(4);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(balanceShardService.fold(fromCard)).thenReturn(BigDecimal.valueOf(1500.00));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 300.00);
+        stubBalanceAfterUpdate(2L, 1700.00);
 
         // Act
         cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
 
         // Assert
-        assertEquals(BigDecimal.valueOf(800.00), fromCard.getBalance());
-        assertEquals(BigDecimal.valueOf(700.00), toCard.getBalance());
-        verify(cardRepository, times(2)).save(any(Card.class));
+        InOrder inOrder = inOrder(balanceShardService, cardRepository);
+        inOrder.verify(balanceShardService).fold(fromCard);
+        inOrder.verify(cardRepository).debit(eq(1L), eq(transferAmount), any());
+        verify(balanceSnapshotService).recordDebit(1L, BigDecimal.valueOf(1500.00), transferAmount);
     }
 
     @Test
@@ -123,6 +310,7 @@ class TransferLogicTest {
         assertEquals(BigDecimal.valueOf(1000.00), fromCard.getBalance());
         assertEquals(BigDecimal.valueOf(500.00), toCard.getBalance());
         verify(cardRepository, never()).save(any(Card.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
     @Test
@@ -155,6 +343,22 @@ class TransferLogicTest {
         verify(cardRepository, never()).save(any(Card.class));
     }
 
+    @Test
+    void transferBetweenOwnCards_FromCardExpiredButStillActive_ThrowsException() {
+        // Arrange
+        fromCard.setExpiryDate(LocalDate.now().minusDays(1));
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+
+        // Act & Assert
+        CardNotActiveException exception = assertThrows(CardNotActiveException.class,
+            () -> cardService.transferBetweenOwnCards(1L, 2L, transferAmount));
+        assertEquals("Source card has expired", exception.getMessage());
+        verify(cardRepository, never()).debit(any(), any(), any());
+    }
+
     @Test
     void transferBetweenOwnCards_CardNotFound_ThrowsException() {
         // Arrange
@@ -203,14 +407,16 @@ class TransferLogicTest {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(1L), eq(transferAmount), any())).thenReturn(1);
+        stubBalanceAfterUpdate(1L, 0.00);
+        stubBalanceAfterUpdate(2L, 1500.00);
 
         // Act
         cardService.transferBetweenOwnCards(1L, 2L, transferAmount);
 
         // Assert
-        assertEquals(new BigDecimal("0.00"), fromCard.getBalance());
-        assertEquals(new BigDecimal("1500.00"), toCard.getBalance());
-        verify(cardRepository, times(2)).save(any(Card.class));
+        verify(cardRepository).debit(eq(1L), eq(transferAmount), any());
+        verify(cardRepository).credit(eq(2L), eq(transferAmount), any());
     }
 
     @Test
@@ -271,4 +477,52 @@ class TransferLogicTest {
         verify(cardRepository, never()).findById(anyLong());
         verify(cardRepository, never()).save(any(Card.class));
     }
+
+    @Test
+    void submitTransfer_OwnCards_QueuesPendingWithoutMovingMoney() {
+        // Arrange
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            saved.setId(42L);
+            return saved;
+        });
+
+        // Act
+        TransferStatusResponse response = cardService.submitTransfer(1L, 2L, transferAmount, "Rent");
+
+        // Assert
+        assertEquals(42L, response.getId());
+        assertEquals(Transaction.TransactionStatus.PENDING, response.getStatus());
+        verify(transactionRepository).save(argThat(transaction ->
+                transaction.getStatus() == Transaction.TransactionStatus.PENDING &&
+                transaction.getFromOwnerId().equals(1L) &&
+                "Rent".equals(transaction.getDescription())));
+        verify(cardRepository, never()).debit(any(), any(), any());
+        verify(cardRepository, never()).credit(any(), any(), any());
+        verify(transferMetrics, never()).recordSuccess();
+    }
+
+    @Test
+    void submitTransfer_NotOwnerOfToCard_ThrowsException() {
+        // Arrange
+        BigDecimal transferAmount = BigDecimal.valueOf(200.00);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(3L)).thenReturn(Optional.of(anotherUserCard));
+
+        // Act & Assert
+        UnauthorizedCardAccessException exception = assertThrows(UnauthorizedCardAccessException.class,
+            () -> cardService.submitTransfer(1L, 3L, transferAmount, null));
+        verify(transferMetrics).recordFailure(exception);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    // Balance the card row holds once this transfer's update ran
+    private void stubBalanceAfterUpdate(Long cardId, double balance) {
+        when(cardRepository.findBalanceById(cardId)).thenReturn(BigDecimal.valueOf(balance));
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.bankrest.validation;
+
+import com.example.bankrest.dto.TransferRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferRequestValidatorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator beanValidator;
+
+    private final TransferRequestValidator validator = new TransferRequestValidator();
+
+    @BeforeAll
+    static void setUpBeanValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeBeanValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void validate_ValidRequest_NoErrors() {
+        // Act
+        BeanPropertyBindingResult errors = validate(request(1L, 2L, "100.00", "Rent"));
+
+        // Assert
+        assertFalse(errors.hasErrors());
+    }
+
+    @Test
+    void validate_SameCard_ValidTransferError() {
+        // Act
+        BeanPropertyBindingResult errors = validate(request(1L, 1L, "100.00", null));
+
+        // Assert
+        FieldError error = errors.getFieldError("validTransfer");
+        assertNotNull(error);
+        assertEquals(false, error.getRejectedValue());
+        assertEquals("Source and destination cards must be different", error.getDefaultMessage());
+    }
+
+    @Test
+    void validate_TooManyDecimals_DigitsAndMinErrors() {
+        // Act
+        BeanPropertyBindingResult errors = validate(request(1L, 2L, "0.001", null));
+
+        // Assert
+        assertEquals(List.of("Amount must be greater than 0",
+                        "Amount must have at most 6 integer digits and 2 decimal places"),
+                errors.getFieldErrors("amount").stream().map(FieldError::getDefaultMessage).toList());
+    }
+
+    @Test
+    void validate_SameErrorsAsBeanValidation() {
+        String longDescription = "x".repeat(256);
+        List<TransferRequest> requests = List.of(
+                request(1L, 2L, "100.00", "Rent"),
+                request(1L, 2L, "100.000", null),
+                request(1L, 2L, "1E+2", null),
+                request(1L, 2L, "999999.99", null),
+                request(1L, 2L, "999999.990", null),
+                request(1L, 2L, "1000000", null),
+                request(1L, 2L, "0.01", null),
+                request(1L, 2L, "0.00", null),
+                request(1L, 2L, "-5", null),
+                request(1L, 2L, "0.001", null),
+                request(1L, 2L, "12.345", null),
+                request(null, null, null, null),
+                request(0L, -3L, "10", null),
+                request(4L, 4L, "10", "x".repeat(255)),
+                request(4L, 4L, "10", longDescription));
+
+        for (TransferRequest request : requests) {
+            Set<String> expected = beanValidator.validate(request).stream()
+                    .map(v -> describe(v.getPropertyPath().toString(), v.getInvalidValue(), v.getMessage()))
+                    .collect(Collectors.toSet());
+            Set<String> actual = validate(request).getFieldErrors().stream()
+                    .map(e -> describe(e.getField(), e.getRejectedValue(), e.getDefaultMessage()))
+                    .collect(Collectors.toSet());
+
+            assertEquals(expected, actual, () -> "amount " + request.getAmount());
+        }
+    }
+
+    private BeanPropertyBindingResult validate(TransferRequest request) {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(request, "transferRequest");
+        validator.validate(request, errors);
+        return errors;
+    }
+
+    private TransferRequest request(Long fromCardId, Long toCardId, String amount, String description) {
+        return new TransferRequest(fromCardId, toCardId, amount == null ? null : new BigDecimal(amount), description);
+    }
+
+    private String describe(String field, Object rejectedValue, String message) {
+        return field + "|" + rejectedValue + "|" + message;
+    }
+}